@@ -0,0 +1,251 @@
+package com.summarizer.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AIClientConfig {
+
+    @Value("${ai.client.summarize.max-connections:20}")
+    private int summarizeMaxConnections;
+
+    @Value("${ai.client.summarize.connect-timeout-ms:2000}")
+    private long summarizeConnectTimeoutMs;
+
+    @Value("${ai.client.summarize.pool-timeout-ms:5000}")
+    private long summarizePoolTimeoutMs;
+
+    @Value("${ai.client.summarize.read-timeout-ms:60000}")
+    private long summarizeReadTimeoutMs;
+
+    @Value("${ai.client.summarize.total-timeout-ms:90000}")
+    private long summarizeTotalTimeoutMs;
+
+    @Value("${ai.client.health.max-connections:2}")
+    private int healthMaxConnections;
+
+    @Value("${ai.client.health.connect-timeout-ms:1000}")
+    private long healthConnectTimeoutMs;
+
+    @Value("${ai.client.health.pool-timeout-ms:1000}")
+    private long healthPoolTimeoutMs;
+
+    @Value("${ai.client.health.read-timeout-ms:2000}")
+    private long healthReadTimeoutMs;
+
+    @Value("${ai.client.health.total-timeout-ms:3000}")
+    private long healthTotalTimeoutMs;
+
+    @Value("${ai.client.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    // Aborts requests that outlive their total deadline, including slow body reads. Deadlines are
+    // cancelled when their exchange ends; remove-on-cancel takes them (and the request they
+    // reference) out of the queue right away instead of when they would have fired.
+    private final ScheduledThreadPoolExecutor deadlineScheduler = deadlineScheduler();
+
+    @Bean(destroyMethod = "close")
+    PoolingHttpClientConnectionManager aiSummarizeConnectionManager() {
+        return connectionManager(summarizeMaxConnections, summarizeConnectTimeoutMs, summarizeReadTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    PoolingHttpClientConnectionManager aiHealthConnectionManager() {
+        return connectionManager(healthMaxConnections, healthConnectTimeoutMs, healthReadTimeoutMs);
+    }
+
+    @Bean(name = "aiSummarizeRestTemplate")
+    RestTemplate aiSummarizeRestTemplate(
+            @Qualifier("aiSummarizeConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return restTemplate(connectionManager, summarizePoolTimeoutMs, summarizeReadTimeoutMs, summarizeTotalTimeoutMs);
+    }
+
+    @Bean(name = "aiHealthRestTemplate")
+    RestTemplate aiHealthRestTemplate(
+            @Qualifier("aiHealthConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return restTemplate(connectionManager, healthPoolTimeoutMs, healthReadTimeoutMs, healthTotalTimeoutMs);
+    }
+
+    @Bean
+    MeterBinder aiSummarizePoolMetrics(
+            @Qualifier("aiSummarizeConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ai-summarize");
+    }
+
+    @Bean
+    MeterBinder aiHealthPoolMetrics(
+            @Qualifier("aiHealthConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ai-health");
+    }
+
+    @PreDestroy
+    void shutdownDeadlineScheduler() {
+        deadlineScheduler.shutdownNow();
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager(int maxConnections, long connectTimeoutMs,
+                                                                 long readTimeoutMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    private RestTemplate restTemplate(PoolingHttpClientConnectionManager connectionManager, long poolTimeoutMs,
+                                      long readTimeoutMs, long totalTimeoutMs) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+
+        DeadlineRequestFactory requestFactory = new DeadlineRequestFactory(httpClient, totalTimeoutMs, deadlineScheduler);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setInterceptors(List.of(requestFactory.deadlineReleasingInterceptor()));
+        return restTemplate;
+    }
+
+    private static ScheduledThreadPoolExecutor deadlineScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "ai-client-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private final long totalTimeoutMs;
+        private final ScheduledExecutorService scheduler;
+
+        DeadlineRequestFactory(CloseableHttpClient httpClient, long totalTimeoutMs, ScheduledExecutorService scheduler) {
+            super(httpClient);
+            this.totalTimeoutMs = totalTimeoutMs;
+            this.scheduler = scheduler;
+        }
+
+        // The request is created and executed on the calling thread, inside the interceptor below
+        private final ThreadLocal<Cancellable> pendingRequest = new ThreadLocal<>();
+        private final ThreadLocal<ScheduledFuture<?>> pendingDeadline = new ThreadLocal<>();
+
+        @Override
+        protected void postProcessHttpRequest(ClassicHttpRequest request) {
+            if (request instanceof Cancellable cancellable) {
+                pendingRequest.set(cancellable);
+                AbortableExchange.attach(cancellable);
+                if (totalTimeoutMs > 0) {
+                    pendingDeadline.set(scheduler.schedule(cancellable::cancel, totalTimeoutMs, TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+
+        // Hands the deadline and the request to the response, which releases them on close; a failed
+        // exchange releases them here
+        ClientHttpRequestInterceptor deadlineReleasingInterceptor() {
+            return (request, body, execution) -> {
+                try {
+                    ClientHttpResponse response = execution.execute(request, body);
+                    Cancellable sent = pendingRequest.get();
+                    return sent == null ? response : new DeadlineResponse(response, sent, pendingDeadline.get());
+                } catch (IOException | RuntimeException | Error e) {
+                    Cancellable sent = pendingRequest.get();
+                    if (sent != null) {
+                        AbortableExchange.detach(sent);
+                    }
+                    ScheduledFuture<?> deadline = pendingDeadline.get();
+                    if (deadline != null) {
+                        deadline.cancel(false);
+                    }
+                    throw e;
+                } finally {
+                    pendingRequest.remove();
+                    pendingDeadline.remove();
+                }
+            };
+        }
+    }
+
+    private static class DeadlineResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Cancellable request;
+        private final ScheduledFuture<?> deadline;
+
+        DeadlineResponse(ClientHttpResponse delegate, Cancellable request, ScheduledFuture<?> deadline) {
+            this.delegate = delegate;
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            // RestTemplate closes the response on the thread that made the call
+            AbortableExchange.detach(request);
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.summarizer.config;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.function.Supplier;
+
+// Lets another thread abort the HTTP exchange of an AI call running on this one. Interrupting a
+// thread blocked in a socket read does nothing; cancelling the request closes its connection.
+// The request factory attaches each request it creates on a bound thread and detaches it when
+// the exchange ends, so abort() only reports exchanges that were still running.
+public final class AbortableExchange {
+
+    private static final ThreadLocal<AbortableExchange> CURRENT = new ThreadLocal<>();
+
+    private Cancellable request;
+    private boolean aborted;
+
+    // Runs the call with requests made on this thread attached to the exchange
+    public <T> T run(Supplier<T> call) {
+        AbortableExchange previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    // Cancels the request in flight, if any; one attached afterwards is cancelled before it is sent
+    public synchronized boolean abort() {
+        if (aborted) {
+            return false;
+        }
+        aborted = true;
+        Cancellable inFlight = request;
+        request = null;
+        return inFlight != null && inFlight.cancel();
+    }
+
+    static void attach(Cancellable request) {
+        AbortableExchange exchange = CURRENT.get();
+        if (exchange != null) {
+            exchange.attachRequest(request);
+        }
+    }
+
+    static void detach(Cancellable request) {
+        AbortableExchange exchange = CURRENT.get();
+        if (exchange != null) {
+            exchange.detachRequest(request);
+        }
+    }
+
+    private synchronized void attachRequest(Cancellable request) {
+        if (aborted) {
+            request.cancel();
+        } else {
+            this.request = request;
+        }
+    }
+
+    private synchronized void detachRequest(Cancellable request) {
+        if (this.request == request) {
+            this.request = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.summarizer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${summary.jobs.pool-size:4}")
+    private int poolSize;
+
+    @Value("${summary.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${summary.chunking.parallelism:8}")
+    private int chunkParallelism;
+
+    @Value("${file.extraction.parallelism:4}")
+    private int extractionParallelism;
+
+    @Value("${file.extraction.queue-capacity:50}")
+    private int extractionQueueCapacity;
+
+    @Value("${summary.batch.parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${summary.batch.queue-capacity:1000}")
+    private int batchQueueCapacity;
+
+    @Value("${ai.hedging.pool-size:32}")
+    private int aiAttemptPoolSize;
+
+    @Value("${ai.client.summarize.max-connections:20}")
+    private int aiMaxConnections;
+
+    // Bounded pool for summarization jobs so request threads never wait on the AI service
+    @Bean(name = "summaryJobExecutor")
+    ThreadPoolTaskExecutor summaryJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("summary-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Caps concurrent chunk calls to the AI service across all running jobs
+    @Bean(name = "summaryChunkExecutor")
+    ThreadPoolTaskExecutor summaryChunkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(chunkParallelism);
+        executor.setMaxPoolSize(chunkParallelism);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("summary-chunk-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Batch summarize requests share this pool, so one large batch can't take over the job pool
+    @Bean(name = "summaryBatchExecutor")
+    ThreadPoolTaskExecutor summaryBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchParallelism);
+        executor.setMaxPoolSize(batchParallelism);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("summary-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Text extraction runs beside the upload stream; rejected work surfaces as 503 instead of
+    // running on the caller, which is the thread feeding the extractor
+    @Bean(name = "extractionExecutor")
+    ThreadPoolTaskExecutor extractionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(extractionParallelism);
+        executor.setMaxPoolSize(extractionParallelism);
+        executor.setQueueCapacity(extractionQueueCapacity);
+        executor.setThreadNamePrefix("extraction-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Threads for individual AI call attempts so a slow one can be hedged. No queue: when every
+    // thread is busy the attempt is rejected and the caller runs it itself, without a hedge. More
+    // threads than pooled connections would only park hedges waiting for a connection.
+    @Bean(name = "aiAttemptExecutor")
+    ThreadPoolTaskExecutor aiAttemptExecutor() {
+        int size = Math.min(aiAttemptPoolSize, aiMaxConnections);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-attempt-");
+        executor.initialize();
+        return executor;
+    }
+}
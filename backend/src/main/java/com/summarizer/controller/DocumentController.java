@@ -1,26 +1,36 @@
 package com.summarizer.controller;
 
+import com.summarizer.dto.ArchiveUploadResponse;
+import com.summarizer.dto.BatchSummaryRequest;
+import com.summarizer.dto.CursorPage;
+import com.summarizer.dto.DocumentSearchResult;
 import com.summarizer.dto.DocumentUploadResponse;
+import com.summarizer.dto.SummaryJobResponse;
 import com.summarizer.dto.SummaryRequest;
-import com.summarizer.dto.SummaryResponse;
 import com.summarizer.entity.Document;
 import com.summarizer.entity.Summary;
+import com.summarizer.model.BatchSummaryTask;
+import com.summarizer.model.DocumentSearchView;
+import com.summarizer.model.SummaryJob;
 import com.summarizer.repository.SummaryRepository;
+import com.summarizer.service.ArchiveIngestionService;
+import com.summarizer.service.DocumentDownloadService;
 import com.summarizer.service.DocumentProcessingService;
 import com.summarizer.service.MappingService;
+import com.summarizer.service.SummaryBatchService;
+import com.summarizer.service.SummaryJobService;
 import com.summarizer.service.SummaryService;
 import com.summarizer.service.UserService;
 import org.apache.tika.exception.TikaException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,23 +38,42 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/documents")
 public class DocumentController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SCROLL_PAGE_SIZE = 100;
+    private static final Set<String> SORT_KEYS = Set.of("uploadTimestamp");
+
     @Autowired
     private DocumentProcessingService documentProcessingService;
 
+    @Autowired
+    private ArchiveIngestionService archiveIngestionService;
+
+    @Autowired
+    private DocumentDownloadService documentDownloadService;
+
     @Autowired
     private SummaryService summaryService;
 
+    @Autowired
+    private SummaryJobService summaryJobService;
+
+    @Autowired
+    private SummaryBatchService summaryBatchService;
+
     @Autowired
     private UserService userService;
 
@@ -64,13 +93,7 @@ public class DocumentController {
         try {
             Document document = documentProcessingService.processUploadedFile(file, userId);
 
-            DocumentUploadResponse response = new DocumentUploadResponse(
-                    document.getId(),
-                    document.getOriginalFilename(),
-                    document.getFileType(),
-                    document.getFileSize(),
-                    document.getStatus(),
-                    document.getUploadTimestamp());
+            DocumentUploadResponse response = mappingService.toDocumentResponse(document);
 
             return ResponseEntity.ok(response);
         } catch (IOException | TikaException e) {
@@ -78,6 +101,39 @@ public class DocumentController {
         }
     }
 
+    // As a form upload the archive is held to the multipart limit of a single file
+    @PostMapping(value = "/upload-archive", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ArchiveUploadResponse> uploadArchive(
+            @RequestParam MultipartFile file,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        try {
+            return ResponseEntity.ok(archiveIngestionService.ingest(file, userId));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to process archive: " + e.getMessage(), e);
+        }
+    }
+
+    // Larger archives are posted as the raw request body, named by the filename parameter, and
+    // streamed up to file.archive.max-upload-bytes
+    @PostMapping(value = "/upload-archive", consumes = {"application/zip", "application/x-tar", "application/gzip",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ArchiveUploadResponse> uploadArchiveStream(
+            @RequestParam String filename,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        try {
+            return ResponseEntity.ok(archiveIngestionService.ingest(filename, request.getInputStream(), userId));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to process archive: " + e.getMessage(), e);
+        }
+    }
+
     @GetMapping
     public ResponseEntity<Page<DocumentUploadResponse>> getDocuments(
             @RequestParam(defaultValue = "0") int page,
@@ -88,22 +144,40 @@ public class DocumentController {
 
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        // Only keys with an index behind them; id keeps the order stable between pages
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sortBy must be one of " + SORT_KEYS);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy, "id"));
 
         Page<Document> documents = userService.getUserDocuments(userId, pageable);
 
-        Page<DocumentUploadResponse> response = documents.map(doc -> new DocumentUploadResponse(
-                doc.getId(),
-                doc.getOriginalFilename(),
-                doc.getFileType(),
-                doc.getFileSize(),
-                doc.getStatus(),
-                doc.getUploadTimestamp()));
+        Page<DocumentUploadResponse> response = documents.map(mappingService::toDocumentResponse);
 
         return ResponseEntity.ok(response);
     }
 
+    // Keyset pagination by upload time: no count query, and deep pages cost the same as the first
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<DocumentUploadResponse>> scrollDocuments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        CursorPage<Document> documents = userService.getUserDocumentsAfter(userId, cursor,
+                Math.max(1, Math.min(size, MAX_SCROLL_PAGE_SIZE)), sortDir.equalsIgnoreCase("asc"));
+
+        List<DocumentUploadResponse> content = documents.getContent().stream()
+                .map(mappingService::toDocumentResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new CursorPage<>(content, documents.getNextCursor()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Document> getDocument(
             @PathVariable UUID id,
@@ -123,51 +197,27 @@ public class DocumentController {
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
         Document document = userService.getUserDocument(id, userId);
 
-        // Delete file from storage
-        if (document.getFilePath() != null) {
-            documentProcessingService.deleteDocumentFile(userId, document.getFilePath());
-        }
-
-        // Delete from database (this will also delete summaries due to CASCADE)
-        userService.deleteDocument(id);
+        // Delete the row, its summaries and its file reference together
+        userService.deleteDocument(document);
 
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadDocument(
+    public void downloadDocument(
             @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
 
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
         Document document = userService.getUserDocument(id, userId);
 
-        try {
-            Path filePath = Path.of(document.getFilePath());
-            Resource resource = new FileSystemResource(filePath);
-
-            if (!resource.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
-            }
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + document.getOriginalFilename() + "\"")
-                    .body(resource);
-
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        documentDownloadService.send(document, request, response);
     }
 
     @PostMapping("/{id}/summarize")
-    public ResponseEntity<SummaryResponse> createSummary(
+    public ResponseEntity<SummaryJobResponse> createSummary(
             @PathVariable UUID id,
             @Valid @RequestBody SummaryRequest summaryRequest,
             @AuthenticationPrincipal UserDetails userDetails) {
@@ -175,12 +225,32 @@ public class DocumentController {
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
 
         // Verify document belongs to user
-        userService.getUserDocument(id, userId);
+        userService.verifyDocumentOwnership(id, userId);
 
-        SummaryResponse resp = mappingService
-                .toSummaryResponse(summaryService.createSummary(id, summaryRequest.getSummaryRatio()));
+        // Summarization runs on the job pool; clients poll /api/jobs/{id} or listen on the WebSocket
+        SummaryJob job = summaryJobService.submit(id, userId, summaryRequest.getSummaryRatio(),
+                summaryRequest.getProvider());
 
-        return ResponseEntity.ok(resp);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(mappingService.toSummaryJobResponse(job));
+    }
+
+    @PostMapping(value = "/summarize-batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> summarizeBatch(
+            @Valid @RequestBody BatchSummaryRequest batchRequest,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        // Ownership for the whole batch is checked up front with one query
+        List<BatchSummaryTask> tasks = summaryBatchService.plan(userId, batchRequest);
+
+        // One JSON line per document, written as results are stored
+        StreamingResponseBody body = out -> summaryBatchService.run(tasks, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}/summary")
@@ -191,7 +261,7 @@ public class DocumentController {
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
 
         // Verify document belongs to user
-        userService.getUserDocument(id, userId);
+        userService.verifyDocumentOwnership(id, userId);
 
         List<Summary> summaries = summaryService.getDocumentSummaries(id);
 
@@ -206,18 +276,32 @@ public class DocumentController {
             @AuthenticationPrincipal UserDetails userDetails) {
 
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
-        Pageable pageable = PageRequest.of(page, size, Sort.by("uploadTimestamp").descending());
+        // The search engine decides the order: relevance from the index, newest first from Postgres
+        Pageable pageable = PageRequest.of(page, size);
 
         Page<Document> documents = userService.searchUserDocuments(userId, query, pageable);
 
-        Page<DocumentUploadResponse> response = documents.map(doc -> new DocumentUploadResponse(
-                doc.getId(),
-                doc.getOriginalFilename(),
-                doc.getFileType(),
-                doc.getFileSize(),
-                doc.getStatus(),
-                doc.getUploadTimestamp()));
+        Page<DocumentUploadResponse> response = documents.map(mappingService::toDocumentResponse);
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/search/ranked")
+    public ResponseEntity<CursorPage<DocumentSearchResult>> searchDocumentsRanked(
+            @RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        CursorPage<DocumentSearchView> results = userService.searchUserDocumentsRanked(userId, query, cursor,
+                Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+
+        List<DocumentSearchResult> content = results.getContent().stream()
+                .map(mappingService::toDocumentSearchResult)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new CursorPage<>(content, results.getNextCursor()));
+    }
 }
\ No newline at end of file
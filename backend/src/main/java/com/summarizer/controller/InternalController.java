@@ -2,6 +2,7 @@ package com.summarizer.controller;
 
 import com.summarizer.entity.Document;
 import com.summarizer.entity.Summary;
+import com.summarizer.repository.DocumentContentRepository;
 import com.summarizer.repository.DocumentRepository;
 import com.summarizer.repository.SummaryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,9 @@ public class InternalController {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
     @Autowired
     private SummaryRepository summaryRepository;
 
@@ -38,9 +42,10 @@ public class InternalController {
         return summaryRepository.findById(summaryId)
                 .map(Summary::getDocument)
                 .map(doc -> {
+                    String content = documentContentRepository.findContentTextByDocumentId(doc.getId()).orElse("");
                     return ResponseEntity.ok(Map.of(
                         "documentId", doc.getId(),
-                        "content", doc.getContentText() != null ? doc.getContentText() : ""
+                        "content", content
                     ));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -0,0 +1,39 @@
+package com.summarizer.controller;
+
+import com.summarizer.dto.SummaryJobResponse;
+import com.summarizer.model.SummaryJob;
+import com.summarizer.service.MappingService;
+import com.summarizer.service.SummaryJobService;
+import com.summarizer.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private SummaryJobService summaryJobService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MappingService mappingService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SummaryJobResponse> getJob(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        SummaryJob job = summaryJobService.getUserJob(id, userId);
+
+        return ResponseEntity.ok(mappingService.toSummaryJobResponse(job));
+    }
+}
@@ -1,8 +1,13 @@
 package com.summarizer.controller;
 
+import com.summarizer.dto.CursorPage;
 import com.summarizer.dto.SummaryRequest;
 import com.summarizer.dto.SummaryResponse;
+import com.summarizer.dto.SummarySearchResult;
 import com.summarizer.entity.Summary;
+import com.summarizer.model.SummarySearchView;
+import com.summarizer.model.SummaryView;
+import com.summarizer.service.MappingService;
 import com.summarizer.service.SummaryService;
 import com.summarizer.service.UserService;
 import jakarta.validation.Valid;
@@ -11,12 +16,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,12 +32,19 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/summaries")
 public class SummaryController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SCROLL_PAGE_SIZE = 100;
+    private static final Set<String> SORT_KEYS = Set.of("createdAt");
+
     @Autowired
     private SummaryService summaryService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MappingService mappingService;
+
     @GetMapping
     public ResponseEntity<Page<SummaryResponse>> getSummaries(
             @RequestParam(defaultValue = "0") int page,
@@ -40,28 +55,40 @@ public class SummaryController {
 
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-
-        Page<Summary> summaries = summaryService.getUserSummaries(userId, pageable);
-
-        Page<SummaryResponse> response = summaries.map(summary ->
-            new SummaryResponse(
-                summary.getId(),
-                summary.getDocument().getId(),
-                summary.getSummaryText(),
-                summary.getSummaryRatio(),
-                summary.getModelUsed(),
-                summary.getProcessingTimeMs(),
-                summary.getConfidenceScore(),
-                summary.getCreatedAt()
-            )
-        );
+        // Only keys with an index behind them; id keeps the order stable between pages
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sortBy must be one of " + SORT_KEYS);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy, "id"));
+
+        Page<SummaryView> summaries = summaryService.getUserSummaries(userId, pageable);
+
+        Page<SummaryResponse> response = summaries.map(mappingService::toSummaryResponse);
 
         return ResponseEntity.ok(response);
     }
 
+    // Keyset pagination by creation time: no count query, and deep pages cost the same as the first
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<SummaryResponse>> scrollSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        CursorPage<SummaryView> summaries = summaryService.getUserSummariesAfter(userId, cursor,
+                Math.max(1, Math.min(size, MAX_SCROLL_PAGE_SIZE)), sortDir.equalsIgnoreCase("asc"));
+
+        List<SummaryResponse> content = summaries.getContent().stream()
+                .map(mappingService::toSummaryResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new CursorPage<>(content, summaries.getNextCursor()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SummaryResponse> getSummary(
             @PathVariable UUID id,
@@ -70,16 +97,7 @@ public class SummaryController {
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
         Summary summary = summaryService.getUserSummary(id, userId);
 
-        SummaryResponse response = new SummaryResponse(
-            summary.getId(),
-            summary.getDocument().getId(),
-            summary.getSummaryText(),
-            summary.getSummaryRatio(),
-            summary.getModelUsed(),
-            summary.getProcessingTimeMs(),
-            summary.getConfidenceScore(),
-            summary.getCreatedAt()
-        );
+        SummaryResponse response = mappingService.toSummaryResponse(summary);
 
         return ResponseEntity.ok(response);
     }
@@ -97,16 +115,7 @@ public class SummaryController {
         // In a real implementation, you might want to regenerate the summary
         // with the new ratio instead of just updating the text
 
-        SummaryResponse response = new SummaryResponse(
-            summary.getId(),
-            summary.getDocument().getId(),
-            summary.getSummaryText(),
-            summary.getSummaryRatio(),
-            summary.getModelUsed(),
-            summary.getProcessingTimeMs(),
-            summary.getConfidenceScore(),
-            summary.getCreatedAt()
-        );
+        SummaryResponse response = mappingService.toSummaryResponse(summary);
 
         return ResponseEntity.ok(response);
     }
@@ -130,26 +139,35 @@ public class SummaryController {
             @AuthenticationPrincipal UserDetails userDetails) {
 
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-
-        Page<Summary> summaries = summaryService.searchUserSummaries(userId, query, pageable);
-
-        Page<SummaryResponse> response = summaries.map(summary ->
-            new SummaryResponse(
-                summary.getId(),
-                summary.getDocument().getId(),
-                summary.getSummaryText(),
-                summary.getSummaryRatio(),
-                summary.getModelUsed(),
-                summary.getProcessingTimeMs(),
-                summary.getConfidenceScore(),
-                summary.getCreatedAt()
-            )
-        );
+        // The search engine decides the order: relevance from the index, newest first from Postgres
+        Pageable pageable = PageRequest.of(page, size);
+
+        Page<SummaryView> summaries = summaryService.searchUserSummaries(userId, query, pageable);
+
+        Page<SummaryResponse> response = summaries.map(mappingService::toSummaryResponse);
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search/ranked")
+    public ResponseEntity<CursorPage<SummarySearchResult>> searchSummariesRanked(
+            @RequestParam String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+
+        CursorPage<SummarySearchView> results = summaryService.searchUserSummariesRanked(userId, query, cursor,
+                Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+
+        List<SummarySearchResult> content = results.getContent().stream()
+                .map(mappingService::toSummarySearchResult)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new CursorPage<>(content, results.getNextCursor()));
+    }
+
     @GetMapping("/document/{documentId}")
     public ResponseEntity<List<SummaryResponse>> getDocumentSummaries(
             @PathVariable UUID documentId,
@@ -158,21 +176,12 @@ public class SummaryController {
         UUID userId = userService.getCurrentUserId(userDetails.getUsername());
 
         // Verify document belongs to user
-        userService.getUserDocument(documentId, userId);
+        userService.verifyDocumentOwnership(documentId, userId);
 
-        List<Summary> summaries = summaryService.getDocumentSummaries(documentId);
+        List<SummaryView> summaries = summaryService.getDocumentSummaryViews(documentId);
 
         List<SummaryResponse> response = summaries.stream()
-            .map(summary -> new SummaryResponse(
-                summary.getId(),
-                summary.getDocument().getId(),
-                summary.getSummaryText(),
-                summary.getSummaryRatio(),
-                summary.getModelUsed(),
-                summary.getProcessingTimeMs(),
-                summary.getConfidenceScore(),
-                summary.getCreatedAt()
-            ))
+            .map(mappingService::toSummaryResponse)
             .collect(Collectors.toList());
 
         return ResponseEntity.ok(response);
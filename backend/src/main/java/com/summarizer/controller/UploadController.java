@@ -0,0 +1,100 @@
+package com.summarizer.controller;
+
+import com.summarizer.dto.DocumentUploadResponse;
+import com.summarizer.dto.UploadSessionRequest;
+import com.summarizer.dto.UploadSessionResponse;
+import com.summarizer.entity.Document;
+import com.summarizer.entity.UploadSession;
+import com.summarizer.service.ChunkedUploadService;
+import com.summarizer.service.MappingService;
+import com.summarizer.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+// Resumable upload protocol: POST to start, PUT raw chunks at ?offset=, GET to learn the
+// offset after a dropped connection, POST /complete to turn the upload into a document
+@RestController
+@RequestMapping("/api/documents/uploads")
+public class UploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MappingService mappingService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> initUpload(
+            @Valid @RequestBody UploadSessionRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        UploadSession session = chunkedUploadService.init(userId, request.getFilename(), request.getSize());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UploadSessionResponse> getUpload(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        return ResponseEntity.ok(toResponse(chunkedUploadService.getUserSession(id, userId)));
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @PathVariable UUID id,
+            @RequestParam long offset,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        UploadSession session = chunkedUploadService.writeChunk(id, userId, offset, request.getInputStream());
+
+        return ResponseEntity.ok(toResponse(session));
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<DocumentUploadResponse> completeUpload(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        Document document = chunkedUploadService.complete(id, userId);
+
+        DocumentUploadResponse response = mappingService.toDocumentResponse(document);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        UUID userId = userService.getCurrentUserId(userDetails.getUsername());
+        chunkedUploadService.abort(id, userId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session) {
+        return new UploadSessionResponse(session.getId(), session.getFilename(), session.getSize(),
+                session.getOffset(), chunkedUploadService.expiresAt(session));
+    }
+}
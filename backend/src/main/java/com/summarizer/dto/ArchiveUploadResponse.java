@@ -0,0 +1,58 @@
+package com.summarizer.dto;
+
+import java.util.List;
+
+public class ArchiveUploadResponse {
+    private String archiveName;
+    private int uploaded;
+    private int failed;
+    private List<ArchiveEntryResult> entries;
+
+    // Default constructor
+    public ArchiveUploadResponse() {}
+
+    public ArchiveUploadResponse(String archiveName, List<ArchiveEntryResult> entries) {
+        this.archiveName = archiveName;
+        this.entries = entries;
+        for (ArchiveEntryResult entry : entries) {
+            if ("uploaded".equals(entry.getStatus())) {
+                uploaded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    // Getters and setters
+    public String getArchiveName() {
+        return archiveName;
+    }
+
+    public void setArchiveName(String archiveName) {
+        this.archiveName = archiveName;
+    }
+
+    public int getUploaded() {
+        return uploaded;
+    }
+
+    public void setUploaded(int uploaded) {
+        this.uploaded = uploaded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ArchiveEntryResult> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<ArchiveEntryResult> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,68 @@
+package com.summarizer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public class BatchSummaryRequest {
+
+    @NotEmpty(message = "At least one document is required")
+    @Size(max = 500, message = "At most 500 documents per batch")
+    private List<@Valid Item> items;
+
+    // Default constructor
+    public BatchSummaryRequest() {}
+
+    // Getters and setters
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+
+        @NotNull(message = "Document id is required")
+        private UUID documentId;
+
+        @NotNull(message = "Summary ratio is required")
+        @DecimalMin(value = "0.10", message = "Summary ratio must be at least 0.10 (10%)")
+        @DecimalMax(value = "0.50", message = "Summary ratio must be at most 0.50 (50%)")
+        private BigDecimal summaryRatio;
+
+        private String provider;
+
+        public UUID getDocumentId() {
+            return documentId;
+        }
+
+        public void setDocumentId(UUID documentId) {
+            this.documentId = documentId;
+        }
+
+        public BigDecimal getSummaryRatio() {
+            return summaryRatio;
+        }
+
+        public void setSummaryRatio(BigDecimal summaryRatio) {
+            this.summaryRatio = summaryRatio;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public void setProvider(String provider) {
+            this.provider = provider;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.summarizer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One NDJSON line of a batch summarize response
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSummaryResult {
+    private UUID documentId;
+    private BigDecimal summaryRatio;
+    private String status;
+    private SummaryResponse summary;
+    private String error;
+
+    // Default constructor
+    public BatchSummaryResult() {}
+
+    public BatchSummaryResult(UUID documentId, BigDecimal summaryRatio, String status) {
+        this.documentId = documentId;
+        this.summaryRatio = summaryRatio;
+        this.status = status;
+    }
+
+    // Getters and setters
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(UUID documentId) {
+        this.documentId = documentId;
+    }
+
+    public BigDecimal getSummaryRatio() {
+        return summaryRatio;
+    }
+
+    public void setSummaryRatio(BigDecimal summaryRatio) {
+        this.summaryRatio = summaryRatio;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public SummaryResponse getSummary() {
+        return summary;
+    }
+
+    public void setSummary(SummaryResponse summary) {
+        this.summary = summary;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,95 @@
+package com.summarizer.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class DocumentSearchResult {
+    private UUID id;
+    private String originalFilename;
+    private String fileType;
+    private Long fileSize;
+    private String status;
+    private LocalDateTime uploadTimestamp;
+    // Matches on the file name come first, whatever their text rank
+    private Boolean filenameMatch;
+    private BigDecimal rank;
+    // HTML-escaped excerpt with matches wrapped in <mark>
+    private String snippet;
+
+    // Default constructor
+    public DocumentSearchResult() {}
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getUploadTimestamp() {
+        return uploadTimestamp;
+    }
+
+    public void setUploadTimestamp(LocalDateTime uploadTimestamp) {
+        this.uploadTimestamp = uploadTimestamp;
+    }
+
+    public Boolean getFilenameMatch() {
+        return filenameMatch;
+    }
+
+    public void setFilenameMatch(Boolean filenameMatch) {
+        this.filenameMatch = filenameMatch;
+    }
+
+    public BigDecimal getRank() {
+        return rank;
+    }
+
+    public void setRank(BigDecimal rank) {
+        this.rank = rank;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+}
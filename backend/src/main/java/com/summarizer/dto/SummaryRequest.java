@@ -16,6 +16,10 @@ public class SummaryRequest {
     @DecimalMax(value = "0.50", message = "Summary ratio must be at most 0.50 (50%)")
     private BigDecimal summaryRatio;
 
+    // Optional provider id (remote, local-textrank, extractive-fallback, stub); routing picks one if absent
+    @JsonProperty("provider")
+    private String provider;
+
     // Default constructor
     public SummaryRequest() {}
 
@@ -33,6 +37,14 @@ public class SummaryRequest {
         this.summaryRatio = summaryRatio;
     }
 
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
     @JsonProperty("summary_ratio")
     public void setSummaryRatioFromSnake(BigDecimal summaryRatio) {
         if (summaryRatio != null) {
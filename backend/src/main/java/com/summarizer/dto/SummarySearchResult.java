@@ -0,0 +1,44 @@
+package com.summarizer.dto;
+
+import java.math.BigDecimal;
+
+public class SummarySearchResult {
+    private SummaryResponse summary;
+    private BigDecimal rank;
+    // HTML-escaped excerpt with matches wrapped in <mark>
+    private String snippet;
+
+    // Default constructor
+    public SummarySearchResult() {}
+
+    public SummarySearchResult(SummaryResponse summary, BigDecimal rank, String snippet) {
+        this.summary = summary;
+        this.rank = rank;
+        this.snippet = snippet;
+    }
+
+    // Getters and setters
+    public SummaryResponse getSummary() {
+        return summary;
+    }
+
+    public void setSummary(SummaryResponse summary) {
+        this.summary = summary;
+    }
+
+    public BigDecimal getRank() {
+        return rank;
+    }
+
+    public void setRank(BigDecimal rank) {
+        this.rank = rank;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+}
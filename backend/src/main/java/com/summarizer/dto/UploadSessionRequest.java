@@ -0,0 +1,39 @@
+package com.summarizer.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class UploadSessionRequest {
+
+    @JsonProperty("filename")
+    @NotBlank(message = "Filename is required")
+    private String filename;
+
+    @JsonProperty("size")
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be greater than 0")
+    private Long size;
+
+    // Default constructor
+    public UploadSessionRequest() {}
+
+    // Getters and setters
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
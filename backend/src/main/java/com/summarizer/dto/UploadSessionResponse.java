@@ -0,0 +1,64 @@
+package com.summarizer.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class UploadSessionResponse {
+    private UUID uploadId;
+    private String filename;
+    private Long size;
+    private Long offset;
+    private LocalDateTime expiresAt;
+
+    // Default constructor
+    public UploadSessionResponse() {}
+
+    public UploadSessionResponse(UUID uploadId, String filename, Long size, Long offset, LocalDateTime expiresAt) {
+        this.uploadId = uploadId;
+        this.filename = filename;
+        this.size = size;
+        this.offset = offset;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and setters
+    public UUID getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(UUID uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
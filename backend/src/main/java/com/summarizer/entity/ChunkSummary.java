@@ -0,0 +1,147 @@
+package com.summarizer.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "chunk_summaries")
+@EntityListeners(AuditingEntityListener.class)
+public class ChunkSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "document_id", nullable = false)
+    @NotNull
+    private UUID documentId;
+
+    @Column(name = "chunk_index", nullable = false)
+    @NotNull
+    private Integer chunkIndex;
+
+    @Column(name = "chunk_hash", nullable = false, length = 64)
+    @NotNull
+    private String chunkHash;
+
+    @Column(name = "model_used", nullable = false, length = 50)
+    @NotNull
+    private String modelUsed;
+
+    @Column(name = "summary_text", nullable = false, columnDefinition = "TEXT")
+    @NotNull
+    private String summaryText;
+
+    @Column(name = "processing_time_ms")
+    private Integer processingTimeMs;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public ChunkSummary() {}
+
+    // Constructor with required fields
+    public ChunkSummary(UUID documentId, Integer chunkIndex, String chunkHash, String modelUsed, String summaryText) {
+        this.documentId = documentId;
+        this.chunkIndex = chunkIndex;
+        this.chunkHash = chunkHash;
+        this.modelUsed = modelUsed;
+        this.summaryText = summaryText;
+    }
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(UUID documentId) {
+        this.documentId = documentId;
+    }
+
+    public Integer getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(Integer chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    public String getChunkHash() {
+        return chunkHash;
+    }
+
+    public void setChunkHash(String chunkHash) {
+        this.chunkHash = chunkHash;
+    }
+
+    public String getModelUsed() {
+        return modelUsed;
+    }
+
+    public void setModelUsed(String modelUsed) {
+        this.modelUsed = modelUsed;
+    }
+
+    public String getSummaryText() {
+        return summaryText;
+    }
+
+    public void setSummaryText(String summaryText) {
+        this.summaryText = summaryText;
+    }
+
+    public Integer getProcessingTimeMs() {
+        return processingTimeMs;
+    }
+
+    public void setProcessingTimeMs(Integer processingTimeMs) {
+        this.processingTimeMs = processingTimeMs;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChunkSummary that = (ChunkSummary) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkSummary{" +
+                "id=" + id +
+                ", documentId=" + documentId +
+                ", chunkIndex=" + chunkIndex +
+                ", chunkHash='" + chunkHash + '\'' +
+                ", modelUsed='" + modelUsed + '\'' +
+                '}';
+    }
+}
@@ -36,12 +36,15 @@ public class Document {
     @NotNull
     private Long fileSize;
 
-    @Column(name = "content_text", columnDefinition = "TEXT")
-    private String contentText;
-
     @Column(name = "file_path", length = 500)
     private String filePath;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
     @Column(name = "upload_timestamp", nullable = false, updatable = false)
     @CreatedDate
     private LocalDateTime uploadTimestamp;
@@ -111,14 +114,6 @@ public class Document {
         this.fileSize = fileSize;
     }
 
-    public String getContentText() {
-        return contentText;
-    }
-
-    public void setContentText(String contentText) {
-        this.contentText = contentText;
-    }
-
     public String getFilePath() {
         return filePath;
     }
@@ -127,6 +122,22 @@ public class Document {
         this.filePath = filePath;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
     public LocalDateTime getUploadTimestamp() {
         return uploadTimestamp;
     }
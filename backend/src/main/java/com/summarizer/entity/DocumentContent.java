@@ -0,0 +1,64 @@
+package com.summarizer.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+// Extracted text of a document, kept apart so loading a Document never loads the text
+@Entity
+@Table(name = "document_contents")
+public class DocumentContent implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "document_id")
+    private UUID documentId;
+
+    @Column(name = "content_text", columnDefinition = "TEXT")
+    private String contentText;
+
+    // The id is assigned, so tell save() whether to insert instead of letting it select first
+    @Transient
+    private boolean isNew = true;
+
+    // Default constructor
+    public DocumentContent() {}
+
+    public DocumentContent(UUID documentId, String contentText) {
+        this.documentId = documentId;
+        this.contentText = contentText;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return documentId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and setters
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(UUID documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getContentText() {
+        return contentText;
+    }
+
+    public void setContentText(String contentText) {
+        this.contentText = contentText;
+    }
+}
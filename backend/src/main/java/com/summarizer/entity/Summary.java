@@ -48,6 +48,10 @@ public class Summary {
     @Column(name = "confidence_score", precision = 3, scale = 2)
     private BigDecimal confidenceScore;
 
+    // JSON array of per-chunk AI call timings for map-reduce summaries
+    @Column(name = "chunk_timings", columnDefinition = "TEXT")
+    private String chunkTimings;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @CreatedDate
     private LocalDateTime createdAt;
@@ -120,6 +124,14 @@ public class Summary {
         this.confidenceScore = confidenceScore;
     }
 
+    public String getChunkTimings() {
+        return chunkTimings;
+    }
+
+    public void setChunkTimings(String chunkTimings) {
+        this.chunkTimings = chunkTimings;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,131 @@
+package com.summarizer.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A resumable upload in progress; the bytes received so far are in the staging file
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    @NotNull
+    private UUID userId;
+
+    @Column(nullable = false, length = 255)
+    @NotNull
+    private String filename;
+
+    @Column(nullable = false)
+    @NotNull
+    private Long size;
+
+    @Column(name = "upload_offset", nullable = false)
+    @NotNull
+    private Long offset;
+
+    @Column(name = "staging_path", nullable = false, length = 500)
+    @NotNull
+    private String stagingPath;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_activity", nullable = false)
+    @NotNull
+    private LocalDateTime lastActivity;
+
+    // Default constructor
+    public UploadSession() {}
+
+    public UploadSession(UUID userId, String filename, long size, Path filePath) {
+        this.userId = userId;
+        this.filename = filename;
+        this.size = size;
+        this.offset = 0L;
+        this.stagingPath = filePath.toString();
+        this.createdAt = LocalDateTime.now();
+        this.lastActivity = createdAt;
+    }
+
+    public boolean isComplete() {
+        return offset.equals(size);
+    }
+
+    public Path getFilePath() {
+        return Path.of(stagingPath);
+    }
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+
+    public String getStagingPath() {
+        return stagingPath;
+    }
+
+    public void setStagingPath(String stagingPath) {
+        this.stagingPath = stagingPath;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
@@ -0,0 +1,12 @@
+package com.summarizer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The AI call was shed before being sent: circuit open or concurrency limit reached
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AICallRejectedException extends AIServiceException {
+    public AICallRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.summarizer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class JobQueueFullException extends RuntimeException {
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+
+    public JobQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
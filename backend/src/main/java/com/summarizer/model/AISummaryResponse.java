@@ -1,5 +1,7 @@
 package com.summarizer.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 
 public class AISummaryResponse {
@@ -14,10 +16,12 @@ public class AISummaryResponse {
     public AISummaryResponse() {}
 
     // Getters and setters
+    @JsonProperty("summary_text")
     public String getSummaryText() {
         return summary_text;
     }
 
+    @JsonProperty("summary_text")
     public void setSummaryText(String summary_text) {
         this.summary_text = summary_text;
     }
@@ -0,0 +1,33 @@
+package com.summarizer.model;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One batch item after validation; provider is null when the caller doesn't own the document
+public class BatchSummaryTask {
+    private final UUID documentId;
+    private final BigDecimal summaryRatio;
+    private final String provider;
+
+    public BatchSummaryTask(UUID documentId, BigDecimal summaryRatio, String provider) {
+        this.documentId = documentId;
+        this.summaryRatio = summaryRatio;
+        this.provider = provider;
+    }
+
+    public boolean isOwned() {
+        return provider != null;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public BigDecimal getSummaryRatio() {
+        return summaryRatio;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
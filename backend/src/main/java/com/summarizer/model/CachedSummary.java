@@ -0,0 +1,42 @@
+package com.summarizer.model;
+
+import java.math.BigDecimal;
+
+public class CachedSummary {
+    private String summaryText;
+    private String modelUsed;
+    private BigDecimal confidenceScore;
+
+    public CachedSummary() {}
+
+    public CachedSummary(String summaryText, String modelUsed, BigDecimal confidenceScore) {
+        this.summaryText = summaryText;
+        this.modelUsed = modelUsed;
+        this.confidenceScore = confidenceScore;
+    }
+
+    // Getters and setters
+    public String getSummaryText() {
+        return summaryText;
+    }
+
+    public void setSummaryText(String summaryText) {
+        this.summaryText = summaryText;
+    }
+
+    public String getModelUsed() {
+        return modelUsed;
+    }
+
+    public void setModelUsed(String modelUsed) {
+        this.modelUsed = modelUsed;
+    }
+
+    public BigDecimal getConfidenceScore() {
+        return confidenceScore;
+    }
+
+    public void setConfidenceScore(BigDecimal confidenceScore) {
+        this.confidenceScore = confidenceScore;
+    }
+}
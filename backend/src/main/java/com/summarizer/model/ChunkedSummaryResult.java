@@ -0,0 +1,33 @@
+package com.summarizer.model;
+
+import java.util.List;
+
+public class ChunkedSummaryResult {
+    private final String summaryText;
+    private final String modelUsed;
+    private final boolean fallback;
+    private final List<Long> chunkTimingsMs;
+
+    public ChunkedSummaryResult(String summaryText, String modelUsed, boolean fallback, List<Long> chunkTimingsMs) {
+        this.summaryText = summaryText;
+        this.modelUsed = modelUsed;
+        this.fallback = fallback;
+        this.chunkTimingsMs = chunkTimingsMs;
+    }
+
+    public String getSummaryText() {
+        return summaryText;
+    }
+
+    public String getModelUsed() {
+        return modelUsed;
+    }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public List<Long> getChunkTimingsMs() {
+        return chunkTimingsMs;
+    }
+}
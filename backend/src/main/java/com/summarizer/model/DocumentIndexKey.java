@@ -0,0 +1,13 @@
+package com.summarizer.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A document the search index is about to read, with an upper bound on the text it will load
+public interface DocumentIndexKey {
+    UUID getId();
+
+    LocalDateTime getUploadTimestamp();
+
+    Integer getTextLength();
+}
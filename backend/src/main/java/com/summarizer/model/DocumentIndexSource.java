@@ -0,0 +1,17 @@
+package com.summarizer.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// What the search index needs of a document
+public interface DocumentIndexSource {
+    UUID getId();
+
+    UUID getUserId();
+
+    String getOriginalFilename();
+
+    String getContentText();
+
+    LocalDateTime getUploadTimestamp();
+}
@@ -0,0 +1,26 @@
+package com.summarizer.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Row of a ranked document search
+public interface DocumentSearchView {
+    UUID getId();
+
+    String getOriginalFilename();
+
+    String getFileType();
+
+    Long getFileSize();
+
+    String getStatus();
+
+    LocalDateTime getUploadTimestamp();
+
+    Boolean getFilenameMatch();
+
+    BigDecimal getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,25 @@
+package com.summarizer.model;
+
+public class IngestedFile {
+    private final long size;
+    private final String sha256;
+    private final String extractedText;
+
+    public IngestedFile(long size, String sha256, String extractedText) {
+        this.size = size;
+        this.sha256 = sha256;
+        this.extractedText = extractedText;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getExtractedText() {
+        return extractedText;
+    }
+}
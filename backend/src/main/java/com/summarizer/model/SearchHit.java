@@ -0,0 +1,21 @@
+package com.summarizer.model;
+
+import java.util.UUID;
+
+public class SearchHit {
+    private final UUID id;
+    private final double score;
+
+    public SearchHit(UUID id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,15 @@
+package com.summarizer.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// What the search index needs of a summary
+public interface SummaryIndexSource {
+    UUID getId();
+
+    UUID getUserId();
+
+    String getSummaryText();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,111 @@
+package com.summarizer.model;
+
+import com.summarizer.dto.SummaryResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class SummaryJob {
+    private final UUID id;
+    private final UUID documentId;
+    private final UUID userId;
+    private final BigDecimal summaryRatio;
+    private final String provider;
+    private final LocalDateTime createdAt;
+
+    // Written by the worker thread, read by request threads polling the job
+    private volatile String status;
+    private volatile int progress;
+    private volatile SummaryResponse summary;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+
+    public SummaryJob(UUID documentId, UUID userId, BigDecimal summaryRatio, String provider) {
+        this.id = UUID.randomUUID();
+        this.documentId = documentId;
+        this.userId = userId;
+        this.summaryRatio = summaryRatio;
+        this.provider = provider;
+        this.createdAt = LocalDateTime.now();
+        this.status = "queued";
+    }
+
+    public boolean isFinished() {
+        return "completed".equals(status) || "failed".equals(status);
+    }
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getSummaryRatio() {
+        return summaryRatio;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+
+    public SummaryResponse getSummary() {
+        return summary;
+    }
+
+    public void setSummary(SummaryResponse summary) {
+        this.summary = summary;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
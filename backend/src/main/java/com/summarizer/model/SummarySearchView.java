@@ -0,0 +1,10 @@
+package com.summarizer.model;
+
+import java.math.BigDecimal;
+
+// Row of a ranked summary search
+public interface SummarySearchView extends SummaryView {
+    BigDecimal getRank();
+
+    String getSnippet();
+}
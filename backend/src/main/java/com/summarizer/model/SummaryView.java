@@ -0,0 +1,24 @@
+package com.summarizer.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Summary columns for listings, read in one query without touching the Document entity
+public interface SummaryView {
+    UUID getId();
+
+    UUID getDocumentId();
+
+    String getSummaryText();
+
+    BigDecimal getSummaryRatio();
+
+    String getModelUsed();
+
+    Integer getProcessingTimeMs();
+
+    BigDecimal getConfidenceScore();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,35 @@
+package com.summarizer.repository;
+
+import com.summarizer.entity.ChunkSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChunkSummaryRepository extends JpaRepository<ChunkSummary, UUID> {
+
+    List<ChunkSummary> findByDocumentIdAndModelUsed(UUID documentId, String modelUsed);
+
+    void deleteByDocumentId(UUID documentId);
+
+    // A row a concurrent run stored first wins; this one is dropped instead of failing
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO chunk_summaries (document_id, chunk_index, chunk_hash, model_used, summary_text, " +
+                   "processing_time_ms, created_at) " +
+                   "VALUES (:documentId, :chunkIndex, :chunkHash, :modelUsed, :summaryText, :processingTimeMs, now()) " +
+                   "ON CONFLICT (document_id, chunk_hash, model_used) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("documentId") UUID documentId,
+                       @Param("chunkIndex") int chunkIndex,
+                       @Param("chunkHash") String chunkHash,
+                       @Param("modelUsed") String modelUsed,
+                       @Param("summaryText") String summaryText,
+                       @Param("processingTimeMs") int processingTimeMs);
+}
@@ -0,0 +1,17 @@
+package com.summarizer.repository;
+
+import com.summarizer.entity.DocumentContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentContentRepository extends JpaRepository<DocumentContent, UUID> {
+
+    @Query("SELECT c.contentText FROM DocumentContent c WHERE c.documentId = :documentId")
+    Optional<String> findContentTextByDocumentId(@Param("documentId") UUID documentId);
+}
@@ -1,14 +1,20 @@
 package com.summarizer.repository;
 
 import com.summarizer.entity.Document;
+import com.summarizer.model.DocumentIndexKey;
+import com.summarizer.model.DocumentIndexSource;
+import com.summarizer.model.DocumentSearchView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,20 +22,130 @@ import java.util.UUID;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
 
+    // Ids of the user's documents matching :searchTerm, a branch per index. The patterns are
+    // written out in each branch rather than read from a CTE so the planner sees them as the
+    // index conditions.
+    String SEARCH_MATCHES =
+        "SELECT d.id FROM documents d WHERE d.user_id = :userId AND " +
+        "lower(d.original_filename) LIKE ('%' || lower(:searchTerm) || '%') " +
+        "UNION " +
+        "SELECT c.document_id FROM document_contents c JOIN documents d ON d.id = c.document_id " +
+        "WHERE d.user_id = :userId AND c.search_vector @@ websearch_to_tsquery('english', :searchTerm)";
+
+    String RANKED_SEARCH_MATCHES =
+        "SELECT d.id FROM documents d WHERE d.user_id = :userId AND " +
+        "lower(d.original_filename) LIKE ('%' || lower(:query) || '%') " +
+        "UNION " +
+        "SELECT c.document_id FROM document_contents c JOIN documents d ON d.id = c.document_id " +
+        "WHERE d.user_id = :userId AND c.search_vector @@ websearch_to_tsquery('english', :query)";
+
     Page<Document> findByUserIdOrderByUploadTimestampDesc(UUID userId, Pageable pageable);
 
+    // Keyset pages on (upload_timestamp, id): each page seeks past the last row of the previous
+    // one, and a Slice reads one extra row to know whether more follow instead of counting. The
+    // redundant timestamp bound is what the index can start its scan from; the OR alone is a filter.
+    @Query("SELECT d FROM Document d WHERE d.userId = :userId AND " +
+           "d.uploadTimestamp <= :afterTimestamp AND " +
+           "(d.uploadTimestamp < :afterTimestamp OR (d.uploadTimestamp = :afterTimestamp AND d.id < :afterId)) " +
+           "ORDER BY d.uploadTimestamp DESC, d.id DESC")
+    Slice<Document> findSliceByUserIdDescending(@Param("userId") UUID userId,
+                                                @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                                @Param("afterId") UUID afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT d FROM Document d WHERE d.userId = :userId AND " +
+           "d.uploadTimestamp >= :afterTimestamp AND " +
+           "(d.uploadTimestamp > :afterTimestamp OR (d.uploadTimestamp = :afterTimestamp AND d.id > :afterId)) " +
+           "ORDER BY d.uploadTimestamp ASC, d.id ASC")
+    Slice<Document> findSliceByUserIdAscending(@Param("userId") UUID userId,
+                                               @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                               @Param("afterId") UUID afterId,
+                                               Pageable pageable);
+
 //    List<Document> findByUserIdAndStatus(UUID userId, String status);
 
     Optional<Document> findByIdAndUserId(UUID id, UUID userId);
 
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    @Query("SELECT d.id FROM Document d WHERE d.userId = :userId AND d.id IN :ids")
+    List<UUID> findIdsByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
 
     @Query("SELECT d FROM Document d WHERE d.userId = :userId AND d.status = :status")
     List<Document> findByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") String status);
 
-    @Query("SELECT d FROM Document d WHERE d.userId = :userId AND " +
-           "(LOWER(d.originalFilename) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(d.contentText) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Document> findByUserIdAndSearchTerm(UUID userId, String searchTerm, Pageable pageable);
+    // Full-text match on the extracted text (GIN on document_contents.search_vector) or a
+    // substring of the file name (trigram index), newest first. One UNION branch per index: an OR
+    // across the two joined tables can't be a BitmapOr, so it scanned every document of the user.
+    @Query(value = "WITH matches AS (" + SEARCH_MATCHES + ") " +
+                   "SELECT d.* FROM documents d JOIN matches m ON m.id = d.id " +
+                   "ORDER BY d.upload_timestamp DESC, d.id",
+           countQuery = "SELECT COUNT(*) FROM (" + SEARCH_MATCHES + ") m",
+           nativeQuery = true)
+    Page<Document> findByUserIdAndSearchTerm(@Param("userId") UUID userId,
+                                             @Param("searchTerm") String searchTerm,
+                                             Pageable pageable);
+
+    // Ranked search with keyset pagination on (filename_match, rank, id): a file name match comes
+    // before any text-only match, since ts_rank_cd has no upper bound to add a constant to. Only
+    // the matches found through the two indexes are ranked, and snippets are only built for the
+    // rows of the page, from escaped text.
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS tsq, " +
+                   "'%' || lower(:query) || '%' AS pattern), " +
+                   "matches AS (" + RANKED_SEARCH_MATCHES + "), " +
+                   "ranked AS (SELECT d.id, d.original_filename, d.file_type, d.file_size, d.status, d.upload_timestamp, " +
+                   "CASE WHEN lower(d.original_filename) LIKE q.pattern THEN 1 ELSE 0 END AS filename_match, " +
+                   "coalesce(round(CAST(ts_rank_cd(c.search_vector, q.tsq) AS numeric), 6), 0) AS rank " +
+                   "FROM matches m JOIN documents d ON d.id = m.id " +
+                   "LEFT JOIN document_contents c ON c.document_id = d.id CROSS JOIN q), " +
+                   "page AS (SELECT * FROM ranked " +
+                   "WHERE filename_match < :afterFilenameMatch OR (filename_match = :afterFilenameMatch AND " +
+                   "(rank < :afterRank OR (rank = :afterRank AND id > :afterId))) " +
+                   "ORDER BY filename_match DESC, rank DESC, id LIMIT :limit) " +
+                   "SELECT p.id AS \"id\", p.original_filename AS \"originalFilename\", p.file_type AS \"fileType\", " +
+                   "p.file_size AS \"fileSize\", p.status AS \"status\", p.upload_timestamp AS \"uploadTimestamp\", " +
+                   "p.filename_match = 1 AS \"filenameMatch\", p.rank AS \"rank\", " +
+                   "ts_headline('english', replace(replace(replace(left(c.content_text, 100000), " +
+                   "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), q.tsq, " +
+                   "'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2') AS \"snippet\" " +
+                   "FROM page p LEFT JOIN document_contents c ON c.document_id = p.id CROSS JOIN q " +
+                   "ORDER BY p.filename_match DESC, p.rank DESC, p.id",
+           nativeQuery = true)
+    List<DocumentSearchView> searchRanked(@Param("userId") UUID userId,
+                                          @Param("query") String query,
+                                          @Param("afterFilenameMatch") int afterFilenameMatch,
+                                          @Param("afterRank") BigDecimal afterRank,
+                                          @Param("afterId") UUID afterId,
+                                          @Param("limit") int limit);
+
+    // Search index feed, in (upload_timestamp, id) order from the given position. Only keys and
+    // text sizes, so the caller can load the text in batches of bounded size; octet_length reads
+    // the stored size without decompressing the value.
+    @Query(value = "SELECT d.id AS \"id\", d.upload_timestamp AS \"uploadTimestamp\", " +
+                   "least(coalesce(octet_length(c.content_text), 0), :maxChars) AS \"textLength\" " +
+                   "FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id " +
+                   "WHERE d.upload_timestamp >= :afterTimestamp AND " +
+                   "(d.upload_timestamp > :afterTimestamp OR (d.upload_timestamp = :afterTimestamp AND d.id > :afterId)) " +
+                   "ORDER BY d.upload_timestamp, d.id LIMIT :limit",
+           nativeQuery = true)
+    List<DocumentIndexKey> findIndexKeys(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                         @Param("afterId") UUID afterId,
+                                         @Param("maxChars") int maxChars,
+                                         @Param("limit") int limit);
+
+    @Query(value = "SELECT d.id AS \"id\", d.upload_timestamp AS \"uploadTimestamp\", " +
+                   "least(coalesce(octet_length(c.content_text), 0), :maxChars) AS \"textLength\" " +
+                   "FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id WHERE d.id IN (:ids)",
+           nativeQuery = true)
+    List<DocumentIndexKey> findIndexKeysByIdIn(@Param("ids") Collection<UUID> ids, @Param("maxChars") int maxChars);
+
+    // What the search index reads of each document: the text only up to the index's cut-off
+    @Query(value = "SELECT d.id AS \"id\", d.user_id AS \"userId\", d.original_filename AS \"originalFilename\", " +
+                   "left(c.content_text, :maxChars) AS \"contentText\", d.upload_timestamp AS \"uploadTimestamp\" " +
+                   "FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id WHERE d.id IN (:ids)",
+           nativeQuery = true)
+    List<DocumentIndexSource> findIndexSourcesByIdIn(@Param("ids") Collection<UUID> ids, @Param("maxChars") int maxChars);
 
     @Query("SELECT COUNT(d) FROM Document d WHERE d.userId = :userId AND d.status = :status")
     long countByUserIdAndStatus(UUID userId, String status);
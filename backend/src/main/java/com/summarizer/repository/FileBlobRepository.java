@@ -0,0 +1,51 @@
+package com.summarizer.repository;
+
+import com.summarizer.entity.FileBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    // Atomic add-a-reference, creating the row for a new blob
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO file_blobs (content_hash, size, ref_count, created_at, updated_at) " +
+                   "VALUES (:hash, :size, 1, now(), now()) " +
+                   "ON CONFLICT (content_hash) DO UPDATE SET ref_count = file_blobs.ref_count + 1, updated_at = now()",
+           nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE file_blobs SET ref_count = ref_count - 1, updated_at = now() " +
+                   "WHERE content_hash = :hash AND ref_count > 0",
+           nativeQuery = true)
+    int release(@Param("hash") String hash);
+
+    // Only succeeds while nothing references the blob, so a concurrent acquire wins
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM file_blobs WHERE content_hash = :hash AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    // Resets counts from the documents table for blobs nobody has touched since the cutoff
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE file_blobs b SET ref_count = " +
+                   "(SELECT COUNT(*) FROM documents d WHERE d.content_hash = b.content_hash), updated_at = now() " +
+                   "WHERE b.updated_at < :cutoff AND b.ref_count <> " +
+                   "(SELECT COUNT(*) FROM documents d WHERE d.content_hash = b.content_hash)",
+           nativeQuery = true)
+    int reconcileRefCounts(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT b.contentHash FROM FileBlob b WHERE b.refCount = 0")
+    List<String> findUnreferencedHashes();
+}
@@ -1,13 +1,20 @@
 package com.summarizer.repository;
 
 import com.summarizer.entity.Summary;
+import com.summarizer.model.SummaryIndexSource;
+import com.summarizer.model.SummarySearchView;
+import com.summarizer.model.SummaryView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,15 +26,120 @@ public interface SummaryRepository extends JpaRepository<Summary, UUID> {
 
     Optional<Summary> findByDocumentId(UUID documentId);
 
-    @Query("SELECT s FROM Summary s WHERE s.document.userId = :userId " +
-           "ORDER BY s.createdAt DESC")
-    Page<Summary> findByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId, Pageable pageable);
+    // Listing projections: s.document.id is the foreign key column, so no document is loaded
+    // and a page costs the select plus its count
+
+    @Query(value = "SELECT s.id AS id, s.document.id AS documentId, s.summaryText AS summaryText, " +
+                   "s.summaryRatio AS summaryRatio, s.modelUsed AS modelUsed, " +
+                   "s.processingTimeMs AS processingTimeMs, s.confidenceScore AS confidenceScore, " +
+                   "s.createdAt AS createdAt " +
+                   "FROM Summary s WHERE s.document.userId = :userId",
+           countQuery = "SELECT COUNT(s) FROM Summary s WHERE s.document.userId = :userId")
+    Page<SummaryView> findViewsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    // Keyset pages on (created_at, id), read as Slices so no count runs; the redundant created_at
+    // bound lets the index scan start at the cursor
+    @Query("SELECT s.id AS id, s.document.id AS documentId, s.summaryText AS summaryText, " +
+           "s.summaryRatio AS summaryRatio, s.modelUsed AS modelUsed, " +
+           "s.processingTimeMs AS processingTimeMs, s.confidenceScore AS confidenceScore, " +
+           "s.createdAt AS createdAt " +
+           "FROM Summary s WHERE s.document.userId = :userId AND " +
+           "s.createdAt <= :afterTimestamp AND " +
+           "(s.createdAt < :afterTimestamp OR (s.createdAt = :afterTimestamp AND s.id < :afterId)) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    Slice<SummaryView> findViewSliceByUserIdDescending(@Param("userId") UUID userId,
+                                                       @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                                       @Param("afterId") UUID afterId,
+                                                       Pageable pageable);
+
+    @Query("SELECT s.id AS id, s.document.id AS documentId, s.summaryText AS summaryText, " +
+           "s.summaryRatio AS summaryRatio, s.modelUsed AS modelUsed, " +
+           "s.processingTimeMs AS processingTimeMs, s.confidenceScore AS confidenceScore, " +
+           "s.createdAt AS createdAt " +
+           "FROM Summary s WHERE s.document.userId = :userId AND " +
+           "s.createdAt >= :afterTimestamp AND " +
+           "(s.createdAt > :afterTimestamp OR (s.createdAt = :afterTimestamp AND s.id > :afterId)) " +
+           "ORDER BY s.createdAt ASC, s.id ASC")
+    Slice<SummaryView> findViewSliceByUserIdAscending(@Param("userId") UUID userId,
+                                                      @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                                      @Param("afterId") UUID afterId,
+                                                      Pageable pageable);
+
+    // Full-text match on summaries.search_vector (GIN), newest first
+    @Query(value = "SELECT s.id AS \"id\", s.document_id AS \"documentId\", s.summary_text AS \"summaryText\", " +
+                   "s.summary_ratio AS \"summaryRatio\", s.model_used AS \"modelUsed\", " +
+                   "s.processing_time_ms AS \"processingTimeMs\", s.confidence_score AS \"confidenceScore\", " +
+                   "s.created_at AS \"createdAt\" " +
+                   "FROM summaries s JOIN documents d ON d.id = s.document_id " +
+                   "WHERE d.user_id = :userId AND s.search_vector @@ websearch_to_tsquery('english', :searchTerm) " +
+                   "ORDER BY s.created_at DESC, s.id",
+           countQuery = "SELECT COUNT(*) FROM summaries s JOIN documents d ON d.id = s.document_id " +
+                        "WHERE d.user_id = :userId AND s.search_vector @@ websearch_to_tsquery('english', :searchTerm)",
+           nativeQuery = true)
+    Page<SummaryView> findViewsByUserIdAndSearchTerm(@Param("userId") UUID userId,
+                                                     @Param("searchTerm") String searchTerm,
+                                                     Pageable pageable);
+
+    // Ranked search with keyset pagination on (rank, id); snippets only for the page's rows
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS tsq), " +
+                   "ranked AS (SELECT s.id, s.document_id, s.summary_ratio, s.model_used, s.processing_time_ms, " +
+                   "s.confidence_score, s.created_at, " +
+                   "round(CAST(ts_rank_cd(s.search_vector, q.tsq) AS numeric), 6) AS rank " +
+                   "FROM summaries s JOIN documents d ON d.id = s.document_id CROSS JOIN q " +
+                   "WHERE d.user_id = :userId AND s.search_vector @@ q.tsq), " +
+                   "page AS (SELECT * FROM ranked " +
+                   "WHERE rank < :afterRank OR (rank = :afterRank AND id > :afterId) " +
+                   "ORDER BY rank DESC, id LIMIT :limit) " +
+                   "SELECT p.id AS \"id\", p.document_id AS \"documentId\", s.summary_text AS \"summaryText\", " +
+                   "p.summary_ratio AS \"summaryRatio\", p.model_used AS \"modelUsed\", " +
+                   "p.processing_time_ms AS \"processingTimeMs\", p.confidence_score AS \"confidenceScore\", " +
+                   "p.created_at AS \"createdAt\", p.rank AS \"rank\", " +
+                   "ts_headline('english', replace(replace(replace(s.summary_text, " +
+                   "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), q.tsq, " +
+                   "'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2') AS \"snippet\" " +
+                   "FROM page p JOIN summaries s ON s.id = p.id CROSS JOIN q " +
+                   "ORDER BY p.rank DESC, p.id",
+           nativeQuery = true)
+    List<SummarySearchView> searchRanked(@Param("userId") UUID userId,
+                                         @Param("query") String query,
+                                         @Param("afterRank") BigDecimal afterRank,
+                                         @Param("afterId") UUID afterId,
+                                         @Param("limit") int limit);
+
+    @Query("SELECT s.id AS id, s.document.id AS documentId, s.summaryText AS summaryText, " +
+           "s.summaryRatio AS summaryRatio, s.modelUsed AS modelUsed, " +
+           "s.processingTimeMs AS processingTimeMs, s.confidenceScore AS confidenceScore, " +
+           "s.createdAt AS createdAt " +
+           "FROM Summary s WHERE s.document.id = :documentId ORDER BY s.createdAt DESC")
+    List<SummaryView> findViewsByDocumentId(@Param("documentId") UUID documentId);
+
+    @Query("SELECT s.id AS id, s.document.id AS documentId, s.summaryText AS summaryText, " +
+           "s.summaryRatio AS summaryRatio, s.modelUsed AS modelUsed, " +
+           "s.processingTimeMs AS processingTimeMs, s.confidenceScore AS confidenceScore, " +
+           "s.createdAt AS createdAt " +
+           "FROM Summary s WHERE s.id IN :ids AND s.document.userId = :userId")
+    List<SummaryView> findViewsByIdInAndUserId(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    // Search index feed, in (created_at, id) order from the given position, the text cut where the
+    // index stops reading it
+    @Query(value = "SELECT s.id AS \"id\", d.user_id AS \"userId\", left(s.summary_text, :maxChars) AS \"summaryText\", " +
+                   "s.created_at AS \"createdAt\" " +
+                   "FROM summaries s JOIN documents d ON d.id = s.document_id " +
+                   "WHERE s.created_at >= :afterTimestamp AND " +
+                   "(s.created_at > :afterTimestamp OR (s.created_at = :afterTimestamp AND s.id > :afterId)) " +
+                   "ORDER BY s.created_at, s.id LIMIT :limit",
+           nativeQuery = true)
+    List<SummaryIndexSource> findIndexSources(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                              @Param("afterId") UUID afterId,
+                                              @Param("maxChars") int maxChars,
+                                              @Param("limit") int limit);
 
-    @Query("SELECT s FROM Summary s WHERE s.document.userId = :userId AND " +
-           "LOWER(s.summaryText) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Summary> findByUserIdAndSearchTerm(@Param("userId") UUID userId,
-                                           @Param("searchTerm") String searchTerm,
-                                           Pageable pageable);
+    // Search index feed for specific summaries, e.g. ones changed since the last index flush
+    @Query(value = "SELECT s.id AS \"id\", d.user_id AS \"userId\", left(s.summary_text, :maxChars) AS \"summaryText\", " +
+                   "s.created_at AS \"createdAt\" " +
+                   "FROM summaries s JOIN documents d ON d.id = s.document_id WHERE s.id IN (:ids)",
+           nativeQuery = true)
+    List<SummaryIndexSource> findIndexSourcesByIdIn(@Param("ids") Collection<UUID> ids, @Param("maxChars") int maxChars);
 
     @Query("SELECT s FROM Summary s WHERE s.document.id = :documentId " +
            "ORDER BY s.createdAt DESC")
@@ -0,0 +1,40 @@
+package com.summarizer.repository;
+
+import com.summarizer.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+
+    // Records the bytes a chunk added; fails if another request moved the offset meanwhile
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.offset = :offset, s.lastActivity = :now " +
+           "WHERE s.id = :id AND s.offset = :expectedOffset")
+    int advanceOffset(@Param("id") UUID id,
+                      @Param("expectedOffset") long expectedOffset,
+                      @Param("offset") long offset,
+                      @Param("now") LocalDateTime now);
+
+    // 1 for the one request that gets to complete or abort the session
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UploadSession s WHERE s.id = :id")
+    int claim(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UploadSession s WHERE s.id = :id AND s.lastActivity < :cutoff")
+    int deleteIfIdleSince(@Param("id") UUID id, @Param("cutoff") LocalDateTime cutoff);
+
+    List<UploadSession> findByLastActivityBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,178 @@
+package com.summarizer.service;
+
+import com.summarizer.exception.AICallRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Circuit breaker plus adaptive concurrency limit in front of each remote provider. Calls that
+// are shed throw AICallRejectedException immediately instead of queueing behind a slow service.
+@Component
+public class AICallGuard {
+
+    @Autowired
+    private List<SummarizationProvider> providers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.guard.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.guard.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.guard.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    // Calls slower than this count as failures for the breaker and as drops for the limiter
+    @Value("${ai.guard.slow-call-ms:15000}")
+    private long slowCallMs;
+
+    @Value("${ai.guard.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${ai.guard.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    @Value("${ai.guard.limit.initial:8}")
+    private int initialLimit;
+
+    @Value("${ai.guard.limit.min:1}")
+    private int minLimit;
+
+    @Value("${ai.guard.limit.max:64}")
+    private int maxLimit;
+
+    @Value("${ai.guard.limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final Map<String, Guard> guards = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (SummarizationProvider provider : providers) {
+            if (!provider.isRemote()) {
+                continue;
+            }
+            String id = provider.getId();
+            Guard guard = new Guard(
+                new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openSeconds * 1000, halfOpenProbes),
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio),
+                Counter.builder("ai.calls.shed").tag("provider", id).tag("reason", "circuit-open").register(meterRegistry),
+                Counter.builder("ai.calls.shed").tag("provider", id).tag("reason", "limit").register(meterRegistry));
+            guards.put(id, guard);
+
+            Gauge.builder("ai.circuit.state", guard.breaker, b -> b.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("provider", id)
+                .register(meterRegistry);
+            Gauge.builder("ai.concurrency.limit", guard.limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("provider", id)
+                .register(meterRegistry);
+            Gauge.builder("ai.concurrency.in-flight", guard.limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("provider", id)
+                .register(meterRegistry);
+        }
+    }
+
+    public String call(SummarizationProvider provider, Supplier<String> call) {
+        Guard guard = guards.get(provider.getId());
+        if (guard == null) {
+            return call.get();
+        }
+
+        if (!guard.limiter.tryAcquire()) {
+            guard.shedByLimit.increment();
+            throw new AICallRejectedException("Concurrency limit reached for provider " + provider.getId());
+        }
+        long admittedIn = guard.breaker.tryAcquire();
+        if (admittedIn == CircuitBreaker.REJECTED) {
+            guard.limiter.release();
+            guard.shedByCircuit.increment();
+            throw new AICallRejectedException("Circuit open for provider " + provider.getId());
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            String result = call.get();
+            if (System.currentTimeMillis() - start > slowCallMs) {
+                guard.breaker.onFailure(admittedIn);
+                guard.limiter.onDropped();
+            } else {
+                guard.breaker.onSuccess(admittedIn);
+                guard.limiter.onSuccess();
+            }
+            return result;
+        } catch (RuntimeException e) {
+            // A cancelled hedge or retry says nothing about the service's health
+            if (Thread.currentThread().isInterrupted()) {
+                guard.breaker.onIgnored(admittedIn);
+            } else if (isClientError(e)) {
+                // The service answered; the request was at fault (text under 50 chars, ratio out of range)
+                guard.breaker.onIgnored(admittedIn);
+                guard.limiter.onSuccess();
+            } else {
+                guard.breaker.onFailure(admittedIn);
+                guard.limiter.onDropped();
+            }
+            throw e;
+        } catch (Error e) {
+            // Not the service's fault either, but a half-open probe slot still has to go back
+            guard.breaker.onIgnored(admittedIn);
+            throw e;
+        } finally {
+            guard.limiter.release();
+        }
+    }
+
+    // 4xx other than 429, which is the service shedding load and counts against it like a 5xx
+    private static boolean isClientError(RuntimeException e) {
+        return e instanceof HttpClientErrorException clientError
+            && clientError.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    // provider id -> state, failure rate, limit and in-flight calls, for the health endpoint
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        guards.forEach((id, guard) -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", guard.breaker.getState().name());
+            details.put("failureRate", guard.breaker.getFailureRate());
+            details.put("concurrencyLimit", guard.limiter.getLimit());
+            details.put("inFlight", guard.limiter.getInFlight());
+            snapshot.put(id, details);
+        });
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public boolean isAnyCircuitOpen() {
+        return guards.values().stream().anyMatch(guard -> guard.breaker.getState() == CircuitBreaker.State.OPEN);
+    }
+
+    private static class Guard {
+        private final CircuitBreaker breaker;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final Counter shedByCircuit;
+        private final Counter shedByLimit;
+
+        Guard(CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter, Counter shedByCircuit, Counter shedByLimit) {
+            this.breaker = breaker;
+            this.limiter = limiter;
+            this.shedByCircuit = shedByCircuit;
+            this.shedByLimit = shedByLimit;
+        }
+    }
+}
@@ -1,75 +1,94 @@
 package com.summarizer.service;
 
-import com.summarizer.exception.AIServiceException;
-import com.summarizer.model.AISummaryRequest;
+import com.summarizer.exception.AICallRejectedException;
 import com.summarizer.model.AISummaryResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 
 @Service
 public class AIService {
 
+    private static final Logger log = LoggerFactory.getLogger(AIService.class);
+
+    public static final String FALLBACK_MODEL = ExtractiveFallbackProvider.ID;
+
     @Value("${ai.service.url}")
     private String aiServiceUrl;
 
     @Autowired
-    private RestTemplate restTemplate;
+    @Qualifier("aiHealthRestTemplate")
+    private RestTemplate healthRestTemplate;
 
-    public String generateSummary(String contentText, BigDecimal summaryRatio) {
-        try {
-            String url = aiServiceUrl + "/summarize";
+    @Autowired
+    private ExtractiveFallbackProvider fallbackProvider;
 
-            AISummaryRequest request = new AISummaryRequest(contentText, summaryRatio);
+    @Autowired
+    private AICallGuard aiCallGuard;
 
-            AISummaryResponse response = restTemplate.postForObject(url, request, AISummaryResponse.class);
+    @Autowired
+    private HedgedAICaller hedgedAICaller;
 
-            if (response != null && response.getSummaryText() != null) {
-                return response.getSummaryText();
-            } else {
-                throw new AIServiceException("Empty response from AI service");
-            }
+    @Autowired
+    private SummarizationRouter summarizationRouter;
 
-        } catch (Exception e) {
-            // Fallback to simple summarization if AI service is unavailable
-            return generateFallbackSummary(contentText, summaryRatio);
-        }
-    }
+    // Provider that answers calls shed by the breaker or limiter; blank fails them fast instead
+    @Value("${ai.guard.shed-provider:local-textrank}")
+    private String shedProviderId;
+
+    private SummarizationProvider shedProvider;
 
-    private String generateFallbackSummary(String contentText, BigDecimal summaryRatio) {
-        // Improved fallback summarization: Extract first N sentences
-        if (contentText == null || contentText.isEmpty()) {
-            return "";
+    @PostConstruct
+    void init() {
+        if (!shedProviderId.isBlank()) {
+            shedProvider = summarizationRouter.get(shedProviderId);
         }
+    }
 
-        // Split by sentence boundaries (period followed by space or newline)
-        String[] sentences = contentText.split("(?<=\\.)\\s+");
-        int totalSentences = sentences.length;
-        int targetSentenceCount = Math.max(1, (int) (totalSentences * summaryRatio.doubleValue()));
-
-        StringBuilder summary = new StringBuilder();
-        for (int i = 0; i < Math.min(targetSentenceCount, totalSentences); i++) {
-            summary.append(sentences[i]).append(" ");
-            // Limit fallback summary to reasonable length (e.g., 1000 chars) to avoid huge texts
-            if (summary.length() > 1000) {
-                break;
+    public AISummaryResponse generateSummary(SummarizationProvider provider, String contentText,
+                                             BigDecimal summaryRatio) {
+        AISummaryResponse response = new AISummaryResponse();
+        try {
+            // Every attempt, hedges and retries included, passes the breaker and concurrency limit
+            response.setSummaryText(hedgedAICaller.call(provider,
+                () -> aiCallGuard.call(provider, () -> provider.summarize(contentText, summaryRatio))));
+            response.setModel_used(provider.getModelName());
+        } catch (AICallRejectedException e) {
+            // Shed without reaching the service, so there is no timeout to wait out first
+            if (shedProvider == null) {
+                throw e;
             }
+            response.setSummaryText(shedProvider.summarize(contentText, summaryRatio));
+            response.setModel_used(shedProvider.getModelName());
+        } catch (Exception e) {
+            // Fallback to simple summarization if the provider is unavailable
+            log.warn("Provider {} failed, using extractive fallback: {}", provider.getId(), e.getMessage());
+            response.setSummaryText(fallbackProvider.summarize(contentText, summaryRatio));
+            response.setModel_used(FALLBACK_MODEL);
         }
+        return response;
+    }
 
-        return summary.toString().trim();
+    // Whether the answer came from something other than the provider that was asked
+    public boolean isFallback(SummarizationProvider provider, AISummaryResponse response) {
+        return !provider.getModelName().equals(response.getModel_used());
     }
 
     public boolean isHealthy() {
         try {
             String url = aiServiceUrl + "/health";
-            String response = restTemplate.getForObject(url, String.class);
+            String response = healthRestTemplate.getForObject(url, String.class);
             return response != null && response.contains("healthy");
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
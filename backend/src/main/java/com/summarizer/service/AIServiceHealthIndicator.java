@@ -0,0 +1,23 @@
+package com.summarizer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Shows up as "aiService" in /actuator/health. An open circuit is reported as degraded rather than
+// DOWN: the backend keeps serving, with shed calls rerouted or failed fast.
+@Component("aiService")
+public class AIServiceHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private AICallGuard aiCallGuard;
+
+    @Override
+    public Health health() {
+        return Health.up()
+            .withDetail("degraded", aiCallGuard.isAnyCircuitOpen())
+            .withDetail("providers", aiCallGuard.snapshot())
+            .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.summarizer.service;
+
+// AIMD concurrency limit: grows by about one per limit's worth of good calls while the limit is
+// actually in use, and shrinks multiplicatively on failures or slow calls
+class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    // Outcomes only move the limit; every acquired slot goes back through release, whatever happened
+    synchronized void onSuccess() {
+        // Only raise the limit when it was the thing holding calls back
+        if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    synchronized void onDropped() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    synchronized void release() {
+        inFlight--;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
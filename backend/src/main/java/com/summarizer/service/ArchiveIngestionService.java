@@ -0,0 +1,439 @@
+package com.summarizer.service;
+
+import com.summarizer.dto.ArchiveEntryResult;
+import com.summarizer.dto.ArchiveUploadResponse;
+import com.summarizer.entity.Document;
+import com.summarizer.exception.FileProcessingException;
+import com.summarizer.model.IngestedFile;
+import com.summarizer.util.Hashing;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Bulk upload from a zip or tar archive. The archive is read once as a stream: each entry is
+// copied straight to a staging file while being hashed, then its text is extracted from that
+// file on the extraction pool while the next entry is being read. All rows go in one batch.
+// Extractions that outlive file.extraction.timeout-ms are aborted so a hung parser gives its
+// pool thread back, and a full pool throttles the archive instead of extracting on this thread.
+@Service
+public class ArchiveIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveIngestionService.class);
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    @Qualifier("extractionExecutor")
+    private ThreadPoolTaskExecutor extractionExecutor;
+
+    @Value("${file.archive.max-total-bytes:209715200}")
+    private long maxTotalBytes;
+
+    @Value("${file.archive.max-upload-bytes:209715200}")
+    private long maxUploadBytes;
+
+    @Value("${file.archive.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${file.extraction.timeout-ms:60000}")
+    private long extractionTimeoutMs;
+
+    public ArchiveUploadResponse ingest(MultipartFile archive, UUID userId) throws IOException {
+        if (archive.isEmpty()) {
+            throw new FileProcessingException("File is empty");
+        }
+        return ingest(archive.getOriginalFilename(), archive.getInputStream(), userId);
+    }
+
+    // Reads the archive straight from the request body, without servlet multipart spooling it
+    // first. Its size is capped here by file.archive.max-upload-bytes, as multipart would have.
+    public ArchiveUploadResponse ingest(String archiveName, InputStream body, UUID userId) throws IOException {
+        List<ArchiveEntryResult> results = new ArrayList<>();
+        List<PendingEntry> pending = new ArrayList<>();
+        long totalBytes = 0;
+
+        CappedInputStream input = new CappedInputStream(body, maxUploadBytes);
+        try (ArchiveInputStream entries = open(archiveName, input)) {
+            ArchiveEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                String name = baseName(entry.getName());
+                if (entry.isDirectory() || isHidden(entry.getName(), name)) {
+                    continue;
+                }
+
+                ArchiveEntryResult result = new ArchiveEntryResult(name, "failed");
+                results.add(result);
+                if (results.size() > maxEntries) {
+                    result.setStatus("skipped");
+                    result.setError("Archive has more than " + maxEntries + " files");
+                    continue;
+                }
+                if (totalBytes >= maxTotalBytes) {
+                    result.setStatus("skipped");
+                    result.setError("Archive exceeds total size limit of " + (maxTotalBytes / 1024 / 1024) + "MB");
+                    continue;
+                }
+
+                try {
+                    documentProcessingService.validateArchiveEntry(name, entry.getSize());
+                    if (!entries.canReadEntryData(entry)) {
+                        throw new FileProcessingException("Unsupported archive entry compression");
+                    }
+                } catch (FileProcessingException e) {
+                    result.setError(e.getMessage());
+                    continue;
+                }
+
+                String extension = extension(name);
+                Path filePath = documentProcessingService.newStagingPath(extension);
+                StoredEntry stored;
+                try {
+                    stored = store(entries, filePath, maxTotalBytes - totalBytes);
+                } catch (FileProcessingException e) {
+                    documentProcessingService.deleteDocumentFile(userId, filePath.toString());
+                    result.setError(e.getMessage());
+                    continue;
+                } catch (IOException e) {
+                    documentProcessingService.deleteDocumentFile(userId, filePath.toString());
+                    throw e;
+                }
+                totalBytes += stored.size;
+                if (stored.size == 0) {
+                    documentProcessingService.deleteDocumentFile(userId, filePath.toString());
+                    result.setError("File is empty");
+                    continue;
+                }
+
+                pending.add(new PendingEntry(result, filePath, stored, extract(filePath, extension, stored.size, pending)));
+            }
+        } catch (IOException e) {
+            // A corrupt archive leaves what was already stored behind; clean it up before failing
+            for (PendingEntry entry : pending) {
+                entry.extraction.abort();
+                documentProcessingService.deleteDocumentFile(userId, entry.filePath.toString());
+            }
+            throw new FileProcessingException("Failed to read archive: " + e.getMessage(), e);
+        }
+        if (input.count == 0) {
+            throw new FileProcessingException("File is empty");
+        }
+
+        List<Document> documents = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<PendingEntry> extracted = new ArrayList<>();
+        for (PendingEntry entry : pending) {
+            try {
+                String text = entry.extraction.await();
+                IngestedFile ingested = new IngestedFile(entry.stored.size, entry.stored.sha256, text);
+                Path blobPath = blobStore.store(entry.filePath, entry.stored.sha256, entry.stored.size);
+                documents.add(documentProcessingService.newDocument(userId, entry.result.getName(), ingested, blobPath));
+                texts.add(text);
+                extracted.add(entry);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                documentProcessingService.deleteDocumentFile(userId, entry.filePath.toString());
+                entry.result.setError(cause instanceof TimeoutException
+                    ? "Text extraction timed out after " + extractionTimeoutMs + " ms"
+                    : "Failed to extract text from file: " + cause.getMessage());
+            } catch (IOException e) {
+                documentProcessingService.deleteDocumentFile(userId, entry.filePath.toString());
+                entry.result.setError("Failed to store file: " + e.getMessage());
+            }
+        }
+
+        List<Document> saved;
+        try {
+            saved = documentProcessingService.saveDocuments(documents, texts);
+        } catch (RuntimeException e) {
+            // Give back the blob references taken for the rows that weren't inserted
+            for (Document document : documents) {
+                documentProcessingService.deleteDocumentFile(userId, document.getFilePath());
+            }
+            throw e;
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            Document document = saved.get(i);
+            ArchiveEntryResult result = extracted.get(i).result;
+            result.setStatus("uploaded");
+            result.setDocumentId(document.getId());
+            result.setFileType(document.getFileType());
+            result.setFileSize(document.getFileSize());
+        }
+
+        log.info("Archive {} ingested for user {}: {} of {} files stored", archiveName, userId, saved.size(), results.size());
+        return new ArchiveUploadResponse(archiveName, results);
+    }
+
+    private ArchiveInputStream open(String archiveName, InputStream input) throws IOException {
+        String name = archiveName == null ? "" : archiveName.toLowerCase(Locale.ROOT);
+        InputStream buffered = new BufferedInputStream(input);
+        if (name.endsWith(".zip")) {
+            return new ZipArchiveInputStream(buffered);
+        } else if (name.endsWith(".tar")) {
+            return new TarArchiveInputStream(buffered);
+        } else if (name.endsWith(".tar.gz") || name.endsWith(".tgz")) {
+            return new TarArchiveInputStream(new GzipCompressorInputStream(buffered));
+        }
+        input.close();
+        throw new FileProcessingException("Archive type not supported. Allowed types: [.zip, .tar, .tar.gz, .tgz]");
+    }
+
+    // Copies the current entry, hashing as it goes. Sizes in archive headers can be missing or
+    // wrong, so both limits are enforced on the bytes actually read.
+    private StoredEntry store(InputStream entry, Path target, long remainingTotal) throws IOException {
+        long maxFileSize = documentProcessingService.getMaxFileSize();
+        MessageDigest digest = Hashing.sha256();
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while ((read = entry.read(buffer)) != -1) {
+                size += read;
+                if (size > maxFileSize) {
+                    throw new FileProcessingException("File size exceeds maximum limit of " + (maxFileSize / 1024 / 1024) + "MB");
+                }
+                if (size > remainingTotal) {
+                    throw new FileProcessingException("Archive exceeds total size limit of " + (maxTotalBytes / 1024 / 1024) + "MB");
+                }
+                out.write(buffer, 0, read);
+                digest.update(buffer, 0, read);
+            }
+        }
+        return new StoredEntry(size, Hashing.toHex(digest.digest()));
+    }
+
+    // Starts the entry's extraction. When the pool and its queue are full, waits for this archive's
+    // oldest unfinished extraction and tries again; with none of its own running it fails the entry.
+    private EntryExtraction extract(Path filePath, String extension, long size, List<PendingEntry> pending) {
+        EntryExtraction extraction = new EntryExtraction(filePath, extension, size);
+        while (true) {
+            try {
+                extraction.start();
+                return extraction;
+            } catch (TaskRejectedException e) {
+                PendingEntry oldest = pending.stream()
+                    .filter(entry -> !entry.extraction.isDone())
+                    .findFirst()
+                    .orElse(null);
+                if (oldest == null) {
+                    extraction.fail(new FileProcessingException("too many uploads are being processed, please retry later"));
+                    return extraction;
+                }
+                try {
+                    oldest.extraction.await();
+                } catch (CompletionException ignored) {
+                    // reported when that entry is collected
+                }
+            }
+        }
+    }
+
+    private static String baseName(String entryName) {
+        String name = entryName.replace('\\', '/');
+        if (name.endsWith("/")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    // Skip OS metadata such as __MACOSX/._file, .DS_Store and other dot files
+    private static boolean isHidden(String entryName, String name) {
+        return name.isEmpty() || name.startsWith(".") || entryName.startsWith("__MACOSX/");
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot == -1 ? "" : name.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    private static class StoredEntry {
+        final long size;
+        final String sha256;
+
+        StoredEntry(long size, String sha256) {
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+
+    // One entry's extraction on the pool, abortable the way UploadIngestionPipeline's is: closing
+    // the file unblocks a parser reading it, and the interrupt reaches one waiting on anything else.
+    // The extractor's own deadline only fires on parser output, so waiting is bounded here too.
+    private class EntryExtraction implements Supplier<String> {
+
+        private final Path filePath;
+        private final String extension;
+        private final long size;
+        private CompletableFuture<String> future;
+        private InputStream input;
+        private Thread worker;
+        private boolean aborted;
+
+        EntryExtraction(Path filePath, String extension, long size) {
+            this.filePath = filePath;
+            this.extension = extension;
+            this.size = size;
+        }
+
+        void start() {
+            future = CompletableFuture.supplyAsync(this, extractionExecutor);
+        }
+
+        void fail(RuntimeException failure) {
+            future = CompletableFuture.failedFuture(failure);
+        }
+
+        boolean isDone() {
+            return future.isDone();
+        }
+
+        // The text, or a CompletionException; a timed-out extraction is aborted before this throws
+        String await() {
+            try {
+                return future.orTimeout(extractionTimeoutMs, TimeUnit.MILLISECONDS).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    abort();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public String get() {
+            synchronized (this) {
+                if (aborted) {
+                    throw new FileProcessingException("Text extraction was aborted");
+                }
+                worker = Thread.currentThread();
+            }
+            try (InputStream in = Files.newInputStream(filePath)) {
+                synchronized (this) {
+                    input = in;
+                }
+                return documentProcessingService.extractText(in, extension, size);
+            } catch (Exception e) {
+                throw new FileProcessingException(e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    worker = null;
+                    input = null;
+                    // An abort racing the end of the task must not leave the pool thread interrupted
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                    // the parser fails on its next read either way
+                }
+            }
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private static class PendingEntry {
+        final ArchiveEntryResult result;
+        final Path filePath;
+        final StoredEntry stored;
+        final EntryExtraction extraction;
+
+        PendingEntry(ArchiveEntryResult result, Path filePath, StoredEntry stored, EntryExtraction extraction) {
+            this.result = result;
+            this.filePath = filePath;
+            this.stored = stored;
+            this.extraction = extraction;
+        }
+    }
+
+    // Fails the read once the archive itself grows past the limit. An IOException, so the entries
+    // already stored are cleaned up like after any other broken archive.
+    private static class CappedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        CappedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counted(skipped);
+            return skipped;
+        }
+
+        private void counted(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Archive exceeds upload size limit of " + (limit / 1024 / 1024) + "MB");
+            }
+        }
+    }
+}
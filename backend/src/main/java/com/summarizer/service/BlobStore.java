@@ -0,0 +1,230 @@
+package com.summarizer.service;
+
+import com.summarizer.repository.FileBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Content-addressed storage for uploaded files. Uploads are written to a staging file, then
+// moved to blobs/ab/cd/<sha256> unless those bytes are already stored. file_blobs counts the
+// documents pointing at each blob; the file goes away when the last one is released.
+@Component
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final int LOCK_STRIPES = 64;
+    // Covers file systems that keep modification times to the second
+    private static final Duration MTIME_SLACK = Duration.ofSeconds(2);
+
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    @Value("${file.storage.path}")
+    private String storagePath;
+
+    @Value("${file.blobs.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Value("${file.blobs.staging-retention-minutes:2880}")
+    private long stagingRetentionMinutes;
+
+    // Placing a file and deleting it for the same hash never interleave within this JVM
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BlobStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Path newStagingPath(String fileExtension) throws IOException {
+        Path stagingDir = stagingRoot();
+        if (!Files.exists(stagingDir)) {
+            Files.createDirectories(stagingDir);
+        }
+        return stagingDir.resolve(UUID.randomUUID() + fileExtension);
+    }
+
+    // Takes a reference on the blob for these bytes and returns its path. The staging file is
+    // moved into place for new content and deleted when the blob already exists. The reference
+    // joins the caller's transaction, so a rolled-back document save drops it too.
+    public Path store(Path stagingFile, String sha256, long size) throws IOException {
+        Path blob = blobPath(sha256);
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            fileBlobRepository.acquire(sha256, size);
+            if (Files.exists(blob)) {
+                Files.deleteIfExists(stagingFile);
+                // Fresh mtime keeps the orphan sweep off a blob whose document isn't saved yet
+                Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(blob.getParent());
+                try {
+                    Files.move(stagingFile, blob, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(stagingFile, blob, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return blob;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isBlob(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(blobRoot());
+    }
+
+    // Drops one reference, in the caller's transaction, and deletes the file once nothing points
+    // at it. The file only goes after commit, so a rollback leaves both the count and the file.
+    public void release(Path blob) {
+        String sha256 = blob.getFileName().toString();
+        Instant releasedAt = Instant.now();
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            fileBlobRepository.release(sha256);
+            if (fileBlobRepository.deleteIfUnreferenced(sha256) > 0) {
+                afterCommit(() -> deleteUnlessReused(blob, sha256, releasedAt));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // store() for the same bytes in the meantime recreates the row and touches the file; keep it then
+    private void deleteUnlessReused(Path blob, String sha256, Instant releasedAt) {
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            Instant modified = Files.getLastModifiedTime(blob).toInstant();
+            if (modified.isBefore(releasedAt.minus(MTIME_SLACK)) && !fileBlobRepository.existsById(sha256)) {
+                Files.deleteIfExists(blob);
+            }
+        } catch (NoSuchFileException e) {
+            // already gone
+        } catch (IOException e) {
+            // The row is gone; the orphan sweep will retry the file
+            log.warn("Failed to delete blob {}: {}", sha256, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Recounts references from documents (catches rows left behind by cascaded deletes or
+    // crashes), then removes unreferenced blobs, blob files without a row, and stale staging files
+    @Scheduled(fixedDelayString = "${file.blobs.gc-interval-ms:3600000}",
+               initialDelayString = "${file.blobs.gc-initial-delay-ms:300000}")
+    public void collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+        int reconciled = fileBlobRepository.reconcileRefCounts(cutoff);
+
+        int deleted = 0;
+        List<String> unreferenced = fileBlobRepository.findUnreferencedHashes();
+        for (String sha256 : unreferenced) {
+            ReentrantLock lock = lockFor(sha256);
+            lock.lock();
+            try {
+                if (fileBlobRepository.deleteIfUnreferenced(sha256) > 0 && Files.deleteIfExists(blobPath(sha256))) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete blob {}: {}", sha256, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Instant orphanCutoff = Instant.now().minus(gcGraceMinutes, ChronoUnit.MINUTES);
+        int orphans = sweep(blobRoot(), orphanCutoff, true);
+        int staged = sweep(stagingRoot(), Instant.now().minus(stagingRetentionMinutes, ChronoUnit.MINUTES), false);
+
+        if (reconciled + deleted + orphans + staged > 0) {
+            log.info("Blob GC: {} ref counts corrected, {} unreferenced blobs, {} orphan files, {} stale staging files removed",
+                    reconciled, deleted, orphans, staged);
+        }
+    }
+
+    private int sweep(Path root, Instant cutoff, boolean blobs) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                if (blobs) {
+                    String sha256 = file.getFileName().toString();
+                    ReentrantLock lock = lockFor(sha256);
+                    lock.lock();
+                    try {
+                        if (!fileBlobRepository.existsById(sha256) && Files.deleteIfExists(file)) {
+                            removed++;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                } else if (Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Blob GC sweep of {} stopped: {}", root, e.getMessage());
+        }
+        return removed;
+    }
+
+    private Path blobPath(String sha256) {
+        return blobRoot().resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private Path blobRoot() {
+        return Path.of(storagePath, "blobs").toAbsolutePath().normalize();
+    }
+
+    private Path stagingRoot() {
+        return Path.of(storagePath, "incoming").toAbsolutePath().normalize();
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
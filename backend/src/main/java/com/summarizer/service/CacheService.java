@@ -70,6 +70,10 @@ public class CacheService {
         redisTemplate.opsForValue().set(key, value, timeout, unit);
     }
 
+    public boolean setCacheIfAbsent(String key, Object value, long timeout, TimeUnit unit) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit));
+    }
+
     public Object getCache(String key) {
         return redisTemplate.opsForValue().get(key);
     }
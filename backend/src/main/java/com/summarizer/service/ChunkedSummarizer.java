@@ -0,0 +1,271 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.ChunkSummary;
+import com.summarizer.model.AISummaryResponse;
+import com.summarizer.model.ChunkedSummaryResult;
+import com.summarizer.repository.ChunkSummaryRepository;
+import com.summarizer.util.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// Map-reduce summarization for long documents. The map stage summarizes every chunk at a fixed
+// ratio and persists the result per chunk hash, so a request at another ratio only re-runs the
+// compose stage over the stored chunk summaries. Compose condenses them to the requested ratio
+// and reduces further in groups until they fit a single model input (or the depth limit is hit).
+// A compose ratio above what the AI service accepts is met by picking sentences from the chunk
+// summaries with TextRank instead, so every requested ratio gets its own length.
+@Service
+public class ChunkedSummarizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedSummarizer.class);
+
+    private static final String PART_SEPARATOR = "\n\n";
+    private static final BigDecimal MIN_RATIO = new BigDecimal("0.10");
+    private static final BigDecimal MAX_RATIO = new BigDecimal("0.50");
+    // The AI service rejects shorter input with a 400
+    private static final int MIN_INPUT_CHARS = 50;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private TextChunker textChunker;
+
+    @Autowired
+    private TextRankSummarizer textRankSummarizer;
+
+    @Autowired
+    private ChunkSummaryRepository chunkSummaryRepository;
+
+    @Autowired
+    @Qualifier("summaryChunkExecutor")
+    private ThreadPoolTaskExecutor summaryChunkExecutor;
+
+    @Value("${summary.chunking.map-ratio:0.5}")
+    private BigDecimal mapRatio;
+
+    @Value("${summary.chunking.reduce-fan-out:4}")
+    private int reduceFanOut;
+
+    @Value("${summary.chunking.max-reduce-depth:2}")
+    private int maxReduceDepth;
+
+    @Value("${summary.chunking.reduce-ratio:0.5}")
+    private BigDecimal reduceRatio;
+
+    public ChunkedSummaryResult summarize(UUID documentId, String contentText, BigDecimal summaryRatio,
+                                          SummarizationProvider provider) {
+        if (!provider.requiresChunking() || textChunker.fitsInOneChunk(contentText)) {
+            PartResult part = summarizePart(provider, contentText, summaryRatio);
+            String model = part.fallbackModel != null ? part.fallbackModel : provider.getModelName();
+            return new ChunkedSummaryResult(part.text, model, part.fallbackModel != null, List.of(part.elapsedMs));
+        }
+
+        List<String> chunks = textChunker.split(contentText);
+        MapResult mapped = mapChunks(documentId, chunks, provider);
+
+        List<String> summaries = mapped.summaries;
+        String fallbackModel = mapped.fallbackModel;
+
+        // Compose: condense the ratio-independent chunk summaries down to the requested ratio
+        BigDecimal composeRatio = summaryRatio.divide(mapRatio, 4, RoundingMode.HALF_UP);
+        if (composeRatio.compareTo(MAX_RATIO) > 0) {
+            if (composeRatio.compareTo(BigDecimal.ONE) < 0) {
+                summaries = extractivePass(summaries, composeRatio);
+            }
+        } else {
+            PassResult composed = reducePass(provider, summaries, clamp(composeRatio));
+            summaries = composed.summaries;
+            fallbackModel = firstNonNull(fallbackModel, composed.fallbackModel);
+        }
+
+        // Reduce: only while the combined summaries are still too long for one model input
+        int depth = 0;
+        while (summaries.size() > 1 && depth < maxReduceDepth
+                && !textChunker.fitsInOneChunk(String.join(PART_SEPARATOR, summaries))) {
+            PassResult reduced = reducePass(provider, summaries, reduceRatio);
+            summaries = reduced.summaries;
+            fallbackModel = firstNonNull(fallbackModel, reduced.fallbackModel);
+            depth++;
+        }
+
+        // A substitute answer for any part labels the whole summary with that substitute
+        String model = fallbackModel != null ? fallbackModel : provider.getModelName();
+        return new ChunkedSummaryResult(String.join(PART_SEPARATOR, summaries), model, fallbackModel != null,
+                mapped.timings);
+    }
+
+    private MapResult mapChunks(UUID documentId, List<String> chunks, SummarizationProvider provider) {
+        String modelName = provider.getModelName();
+        Map<String, ChunkSummary> stored = new HashMap<>();
+        for (ChunkSummary chunkSummary : chunkSummaryRepository.findByDocumentIdAndModelUsed(documentId, modelName)) {
+            stored.put(chunkSummary.getChunkHash(), chunkSummary);
+        }
+
+        int count = chunks.size();
+        String[] hashes = new String[count];
+        // A chunk repeated in the document (boilerplate pages, say) is summarized once
+        Map<String, CompletableFuture<PartResult>> byHash = new HashMap<>();
+        boolean[] firstOccurrence = new boolean[count];
+        List<CompletableFuture<PartResult>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String chunk = chunks.get(i);
+            hashes[i] = Hashing.sha256Hex(chunk);
+            CompletableFuture<PartResult> future = byHash.get(hashes[i]);
+            if (future == null) {
+                ChunkSummary reused = stored.get(hashes[i]);
+                future = reused != null
+                        ? CompletableFuture.completedFuture(new PartResult(reused.getSummaryText(), null, 0))
+                        : CompletableFuture.supplyAsync(() -> summarizePart(provider, chunk, mapRatio), summaryChunkExecutor);
+                byHash.put(hashes[i], future);
+                firstOccurrence[i] = true;
+            }
+            futures.add(future);
+        }
+
+        MapResult result = new MapResult(count);
+        for (int i = 0; i < count; i++) {
+            PartResult part = futures.get(i).join();
+            result.summaries.add(part.text);
+            result.timings.add(firstOccurrence[i] ? part.elapsedMs : 0L);
+            result.fallbackModel = firstNonNull(result.fallbackModel, part.fallbackModel);
+
+            // Fallback output is never stored, so the model gets another chance next time
+            if (firstOccurrence[i] && part.fallbackModel == null && !stored.containsKey(hashes[i])) {
+                try {
+                    chunkSummaryRepository.insertIfAbsent(documentId, i, hashes[i], modelName, part.text,
+                            (int) part.elapsedMs);
+                } catch (Exception e) {
+                    // The summary is still usable; only its reuse by a later request is lost
+                    log.warn("Could not store chunk summary {} for document {}: {}", i, documentId, e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    private PassResult reducePass(SummarizationProvider provider, List<String> summaries, BigDecimal ratio) {
+        List<CompletableFuture<PartResult>> futures = new ArrayList<>();
+        for (String group : group(summaries)) {
+            futures.add(CompletableFuture.supplyAsync(() -> summarizePart(provider, group, ratio),
+                    summaryChunkExecutor));
+        }
+
+        PassResult result = new PassResult(futures.size());
+        for (CompletableFuture<PartResult> future : futures) {
+            PartResult part = future.join();
+            result.summaries.add(part.text);
+            result.fallbackModel = firstNonNull(result.fallbackModel, part.fallbackModel);
+        }
+        return result;
+    }
+
+    // Keeps the highest-ranked share of sentences of each group, in order. Only the model's own
+    // sentences are kept, so the summary is still labelled with the model.
+    private List<String> extractivePass(List<String> summaries, BigDecimal ratio) {
+        List<String> result = new ArrayList<>();
+        for (String group : group(summaries)) {
+            result.add(textRankSummarizer.summarize(group, ratio));
+        }
+        return result;
+    }
+
+    private PartResult summarizePart(SummarizationProvider provider, String text, BigDecimal ratio) {
+        long start = System.currentTimeMillis();
+        AISummaryResponse response = aiService.generateSummary(provider, text, ratio);
+        String fallbackModel = aiService.isFallback(provider, response) ? response.getModel_used() : null;
+        return new PartResult(response.getSummaryText(), fallbackModel,
+                System.currentTimeMillis() - start);
+    }
+
+    // Packs summaries into groups that fit one model input (the service truncates anything longer),
+    // at most reduceFanOut to a group. A group under the service's minimum input is never closed,
+    // and a short tail joins the previous group rather than being rejected on its own.
+    private List<String> group(List<String> summaries) {
+        int fanOut = Math.max(2, reduceFanOut);
+        List<String> groups = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int members = 0;
+        for (String summary : summaries) {
+            int previousLength = current.length();
+            if (members > 0) {
+                current.append(PART_SEPARATOR);
+            }
+            current.append(summary);
+            boolean full = members == fanOut || !textChunker.fitsInOneChunk(current);
+            if (members > 0 && full && previousLength >= MIN_INPUT_CHARS) {
+                groups.add(current.substring(0, previousLength));
+                current.setLength(0);
+                current.append(summary);
+                members = 0;
+            }
+            members++;
+        }
+        if (members == 0) {
+            return groups;
+        }
+        if (current.length() >= MIN_INPUT_CHARS || groups.isEmpty()) {
+            groups.add(current.toString());
+        } else {
+            int last = groups.size() - 1;
+            groups.set(last, groups.get(last) + PART_SEPARATOR + current);
+        }
+        return groups;
+    }
+
+    private static String firstNonNull(String current, String candidate) {
+        return current != null ? current : candidate;
+    }
+
+    // The AI service only accepts ratios between 0.10 and 0.50
+    private BigDecimal clamp(BigDecimal ratio) {
+        return ratio.max(MIN_RATIO).min(MAX_RATIO);
+    }
+
+    private static class PartResult {
+        private final String text;
+        // Model that answered instead of the requested provider, or null
+        private final String fallbackModel;
+        private final long elapsedMs;
+
+        PartResult(String text, String fallbackModel, long elapsedMs) {
+            this.text = text;
+            this.fallbackModel = fallbackModel;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    private static class PassResult {
+        private final List<String> summaries;
+        private String fallbackModel;
+
+        PassResult(int size) {
+            this.summaries = new ArrayList<>(size);
+        }
+    }
+
+    private static class MapResult {
+        private final List<String> summaries;
+        private final List<Long> timings;
+        private String fallbackModel;
+
+        MapResult(int size) {
+            this.summaries = new ArrayList<>(size);
+            this.timings = new ArrayList<>(size);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import com.summarizer.entity.UploadSession;
+import com.summarizer.exception.FileProcessingException;
+import com.summarizer.exception.JobQueueFullException;
+import com.summarizer.exception.ResourceNotFoundException;
+import com.summarizer.handler.WebSocketHandler;
+import com.summarizer.model.IngestedFile;
+import com.summarizer.repository.UploadSessionRepository;
+import com.summarizer.util.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Resumable uploads: init reserves a staging file, each chunk is written at its offset with
+// a positional write and folded into the running SHA-256, and complete saves the document and
+// starts text extraction. Chunks must arrive in order (offset == bytes received so far), which
+// keeps the digest incremental; a client that lost a connection asks for the offset and resumes.
+// Sessions are rows in upload_sessions and staging files sit under file.storage.path, so an upload
+// resumes after a restart or on another replica; the replica that takes a chunk without the
+// running digest rebuilds it from the staged bytes first.
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 65536;
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private WebSocketHandler webSocketHandler;
+
+    @Autowired
+    @Qualifier("extractionExecutor")
+    private ThreadPoolTaskExecutor extractionExecutor;
+
+    @Value("${file.chunked-upload.max-size:1073741824}")
+    private long maxUploadSize;
+
+    @Value("${file.chunked-upload.expiry-minutes:1440}")
+    private long expiryMinutes;
+
+    // This replica's lock and running digest per session it has written to
+    private final Map<UUID, LocalState> localStates = new ConcurrentHashMap<>();
+
+    public UploadSession init(UUID userId, String filename, long size) throws IOException {
+        documentProcessingService.validateExtension(filename);
+        if (size > maxUploadSize) {
+            throw new FileProcessingException("File size exceeds maximum limit of " + (maxUploadSize / 1024 / 1024) + "MB");
+        }
+
+        Path filePath = documentProcessingService.newStagingPath(extension(filename));
+        Files.createFile(filePath);
+
+        UploadSession session;
+        try {
+            session = uploadSessionRepository.save(new UploadSession(userId, filename, size, filePath));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(filePath);
+            throw e;
+        }
+        log.info("Upload {} started for user {}: {} ({} bytes)", session.getId(), userId, filename, size);
+        return session;
+    }
+
+    public UploadSession getUserSession(UUID uploadId, UUID userId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId).orElse(null);
+        if (session == null || !session.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Upload", "id", uploadId);
+        }
+        return session;
+    }
+
+    // Appends the request body at the given offset. Whatever arrived before a dropped
+    // connection is kept, so the client resumes from the offset reported afterwards.
+    public UploadSession writeChunk(UUID uploadId, UUID userId, long offset, InputStream body) throws IOException {
+        getUserSession(uploadId, userId);
+        LocalState state = localStates.computeIfAbsent(uploadId, id -> new LocalState());
+        if (!state.lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another chunk is being written to this upload");
+        }
+        try {
+            // Read again under the lock: the previous chunk may have just moved the offset
+            UploadSession session = getUserSession(uploadId, userId);
+            if (offset != session.getOffset()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Chunk offset " + offset + " does not match upload offset " + session.getOffset());
+            }
+            if (state.digestOffset != offset) {
+                rebuildDigest(state, session);
+            }
+
+            long position = offset;
+            boolean recorded;
+            try (FileChannel channel = FileChannel.open(session.getFilePath(), StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (position + read > session.getSize()) {
+                        throw new FileProcessingException("Chunk runs past the declared file size of " + session.getSize() + " bytes");
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        position += channel.write(chunk, position);
+                    }
+                    state.digest.update(buffer, 0, read);
+                    state.digestOffset = position;
+                }
+            } finally {
+                // Also after a dropped connection, so the bytes that did arrive count
+                LocalDateTime now = LocalDateTime.now();
+                state.lastUsed = now;
+                recorded = uploadSessionRepository.advanceOffset(uploadId, offset, position, now) == 1;
+                if (!recorded) {
+                    state.reset();
+                }
+                session.setOffset(position);
+                session.setLastActivity(now);
+            }
+            if (!recorded) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The upload was changed by another request");
+            }
+            return session;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    // Saves the document once every byte is in and extracts its text in the background; the
+    // document reads "extracting" until then and the usual WebSocket update announces the result
+    public Document complete(UUID uploadId, UUID userId) {
+        getUserSession(uploadId, userId);
+        LocalState state = localStates.computeIfAbsent(uploadId, id -> new LocalState());
+        if (!state.lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A chunk is still being written to this upload");
+        }
+        try {
+            UploadSession session = getUserSession(uploadId, userId);
+            if (!session.isComplete()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload incomplete: " + session.getOffset() + " of " + session.getSize() + " bytes received");
+            }
+            if (state.digestOffset != session.getOffset()) {
+                try {
+                    rebuildDigest(state, session);
+                } catch (IOException e) {
+                    throw new FileProcessingException("Failed to read staged upload: " + e.getMessage(), e);
+                }
+            }
+
+            // Only one request, on any replica, gets to turn the session into a document
+            if (uploadSessionRepository.claim(uploadId) == 0) {
+                throw new ResourceNotFoundException("Upload", "id", uploadId);
+            }
+            localStates.remove(uploadId);
+            String sha256 = Hashing.toHex(state.digest.digest());
+
+            Path blobPath;
+            try {
+                blobPath = blobStore.store(session.getFilePath(), sha256, session.getSize());
+            } catch (IOException e) {
+                documentProcessingService.deleteDocumentFile(userId, session.getFilePath().toString());
+                throw new FileProcessingException("Failed to store file: " + e.getMessage(), e);
+            }
+
+            IngestedFile ingested = new IngestedFile(session.getSize(), sha256, null);
+            Document document = documentProcessingService.newDocument(userId, session.getFilename(), ingested, blobPath);
+            document.setStatus("extracting");
+            try {
+                document = documentProcessingService.saveDocument(document, null);
+            } catch (RuntimeException e) {
+                documentProcessingService.deleteDocumentFile(userId, blobPath.toString());
+                throw e;
+            }
+
+            UUID documentId = document.getId();
+            try {
+                extractionExecutor.execute(() -> extract(documentId, blobPath, session));
+            } catch (TaskRejectedException e) {
+                // The file is stored and hashed; leave it to be picked up as failed rather than lost
+                documentProcessingService.updateDocumentStatus(documentId, "failed");
+                throw new JobQueueFullException("Too many uploads are being processed, please retry later", e);
+            }
+
+            return document;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    // Under the session lock, like complete, so the staging file can't go while a chunk is written
+    public void abort(UUID uploadId, UUID userId) {
+        getUserSession(uploadId, userId);
+        LocalState state = localStates.computeIfAbsent(uploadId, id -> new LocalState());
+        if (!state.lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A chunk is still being written to this upload");
+        }
+        try {
+            UploadSession session = getUserSession(uploadId, userId);
+            if (uploadSessionRepository.claim(uploadId) == 0) {
+                throw new ResourceNotFoundException("Upload", "id", uploadId);
+            }
+            localStates.remove(uploadId);
+            documentProcessingService.deleteDocumentFile(userId, session.getFilePath().toString());
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    public LocalDateTime expiresAt(UploadSession session) {
+        return session.getLastActivity().plusMinutes(expiryMinutes);
+    }
+
+    private void extract(UUID documentId, Path filePath, UploadSession session) {
+        String id = documentId.toString();
+        try (InputStream in = Files.newInputStream(filePath)) {
+            String text = documentProcessingService.extractText(in, extension(session.getFilename()), session.getSize());
+            documentProcessingService.completeExtraction(documentId, text);
+            webSocketHandler.sendProcessingUpdate(id, new WebSocketHandler.ProcessingUpdate(
+                    "extraction", id, "completed", 100, 0, "Text extracted"));
+        } catch (Exception e) {
+            log.error("Text extraction for uploaded document {} failed", documentId, e);
+            documentProcessingService.updateDocumentStatus(documentId, "failed");
+            webSocketHandler.sendProcessingUpdate(id, new WebSocketHandler.ProcessingUpdate(
+                    "extraction", id, "failed", 100, 0, "Text extraction failed"));
+        }
+    }
+
+    // Abandoned sessions and their staging files go away even when no new uploads start
+    @Scheduled(fixedDelayString = "${file.chunked-upload.purge-interval-ms:300000}",
+               initialDelayString = "${file.chunked-upload.purge-interval-ms:300000}")
+    public void purgeExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(expiryMinutes);
+        for (UploadSession session : uploadSessionRepository.findByLastActivityBefore(cutoff)) {
+            LocalState state = localStates.get(session.getId());
+            if (state != null && state.lock.isLocked()) {
+                continue;
+            }
+            // Conditional, so a session another replica has just written to stays
+            if (uploadSessionRepository.deleteIfIdleSince(session.getId(), cutoff) == 1) {
+                localStates.remove(session.getId());
+                documentProcessingService.deleteDocumentFile(session.getUserId(), session.getFilePath().toString());
+            }
+        }
+        // Digests kept for sessions that finished or expired on another replica
+        localStates.values().removeIf(state -> !state.lock.isLocked() && state.lastUsed.isBefore(cutoff));
+    }
+
+    // Hashes the bytes the session has recorded, for a replica that didn't receive them all itself
+    // (after a restart, or when earlier chunks went to another replica)
+    private void rebuildDigest(LocalState state, UploadSession session) throws IOException {
+        MessageDigest digest = Hashing.sha256();
+        try (InputStream in = Files.newInputStream(session.getFilePath())) {
+            byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+            long remaining = session.getOffset();
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    throw new IOException("Staged upload is shorter than its recorded " + session.getOffset() + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        state.digest = digest;
+        state.digestOffset = session.getOffset();
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot == -1 ? "" : filename.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    // The digest and offset it covers only change under the lock
+    private static class LocalState {
+        final ReentrantLock lock = new ReentrantLock();
+        MessageDigest digest;
+        long digestOffset = -1;
+        volatile LocalDateTime lastUsed = LocalDateTime.now();
+
+        void reset() {
+            digest = null;
+            digestOffset = -1;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.summarizer.service;
+
+// Count-based circuit breaker. Opens when the failure rate over the last window-size calls reaches
+// the threshold, rejects everything while open, then lets a few probe calls through (half-open):
+// all succeed and it closes, any fails and it opens again. Outcomes are tagged with the generation
+// they were admitted in, so calls that started before a state change can't skew the new state.
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    static final long REJECTED = -1;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesAdmitted;
+    private int probesSucceeded;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openMillis, int halfOpenProbes) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[windowSize];
+    }
+
+    // Returns the generation to report the outcome against, or REJECTED
+    synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesAdmitted >= halfOpenProbes) {
+                return REJECTED;
+            }
+            probesAdmitted++;
+        }
+        return generation;
+    }
+
+    synchronized void onSuccess(long admittedIn) {
+        if (admittedIn != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure(long admittedIn) {
+        if (admittedIn != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    // The call never happened or was abandoned (shed by the limiter, cancelled); hand back a probe slot
+    synchronized void onIgnored(long admittedIn) {
+        if (admittedIn == generation && state == State.HALF_OPEN) {
+            probesAdmitted--;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : (double) failures / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+        probesAdmitted = 0;
+        probesSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (next == State.CLOSED) {
+            recorded = 0;
+            failures = 0;
+            windowIndex = 0;
+        }
+    }
+}
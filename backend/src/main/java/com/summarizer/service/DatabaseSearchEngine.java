@@ -0,0 +1,34 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import com.summarizer.model.SummaryView;
+import com.summarizer.repository.DocumentRepository;
+import com.summarizer.repository.SummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+// Postgres full-text queries, newest first. Used directly with search.engine=database and as the
+// fallback while the in-JVM index isn't ready.
+@Service
+public class DatabaseSearchEngine implements SearchEngine {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Override
+    public Page<Document> searchDocuments(UUID userId, String query, Pageable pageable) {
+        return documentRepository.findByUserIdAndSearchTerm(userId, query, pageable);
+    }
+
+    @Override
+    public Page<SummaryView> searchSummaries(UUID userId, String query, Pageable pageable) {
+        return summaryRepository.findViewsByUserIdAndSearchTerm(userId, query, pageable);
+    }
+}
@@ -0,0 +1,269 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+// Sends a stored document with Range and ETag support. Single ranges and whole files go out
+// through Tomcat's sendfile when the connector offers it and FileChannel.transferTo otherwise;
+// with accel-redirect on, nginx sends the bytes and the backend only authorizes and sets headers.
+@Service
+public class DocumentDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    @Value("${file.storage.path}")
+    private String storagePath;
+
+    @Value("${file.download.accel-redirect.enabled:false}")
+    private boolean accelRedirect;
+
+    @Value("${file.download.accel-redirect.prefix:/protected-files/}")
+    private String accelRedirectPrefix;
+
+    @Value("${file.download.max-ranges:16}")
+    private int maxRanges;
+
+    public void send(Document document, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = document.getFilePath() == null ? null : Path.of(document.getFilePath());
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        String contentType = document.getContentType() != null ? document.getContentType() : DEFAULT_CONTENT_TYPE;
+        String etag = document.getContentHash() != null ? "\"" + document.getContentHash() + "\"" : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(document.getOriginalFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        // nginx handles Range and the transfer itself for internal redirects
+        if (accelRedirect && isUnderStorage(file)) {
+            response.setHeader("X-Accel-Redirect", accelRedirectPrefix + storageRoot().relativize(file.toAbsolutePath().normalize())
+                    .toString().replace('\\', '/'));
+            return;
+        }
+
+        // A Range only applies when If-Range, if present, still names this version of the file
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && ifRange != null && (etag == null || !etag.equals(ifRange.trim()))) {
+            rangeHeader = null;
+        }
+
+        List<long[]> ranges = rangeHeader == null ? null : parseRanges(rangeHeader, length);
+        if (ranges != null && ranges.isEmpty()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        boolean head = "HEAD".equals(request.getMethod());
+        if (ranges == null) {
+            response.setContentLengthLong(length);
+            if (!head) {
+                transfer(file, 0, length, request, response);
+            }
+        } else if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            long count = range[1] - range[0] + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+            response.setContentLengthLong(count);
+            if (!head) {
+                transfer(file, range[0], count, request, response);
+            }
+        } else {
+            sendMultipart(file, length, contentType, ranges, head, response);
+        }
+    }
+
+    private void transfer(Path file, long position, long count, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            copy(channel, position, count, Channels.newChannel(out));
+        }
+        out.flush();
+    }
+
+    // multipart/byteranges body; the length is worked out up front so it can be declared
+    private void sendMultipart(Path file, long length, String contentType, List<long[]> ranges, boolean head,
+                               HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (range[1] - range[0] + 1);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                out.write(partHeaders.get(i));
+                copy(channel, range[0], range[1] - range[0] + 1, target);
+            }
+        }
+        out.write(closing);
+        out.flush();
+    }
+
+    private void copy(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            long written = channel.transferTo(position + sent, count - sent, target);
+            if (written <= 0) {
+                break;
+            }
+            sent += written;
+        }
+    }
+
+    // Parses "bytes=a-b,c-,-n" into sorted ranges with overlapping and adjacent ones merged. Returns
+    // null when the header should be ignored and the whole file sent (bad syntax, too many ranges,
+    // ranges adding up to more than the file, or a merge covering all of it) and an empty list when
+    // nothing is satisfiable.
+    private List<long[]> parseRanges(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > maxRanges) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            String trimmed = spec.trim();
+            int dash = trimmed.indexOf('-');
+            if (dash == -1) {
+                return null;
+            }
+            long start;
+            long end;
+            try {
+                if (dash == 0) {
+                    long suffix = Long.parseLong(trimmed.substring(1));
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(trimmed.substring(0, dash));
+                    end = dash == trimmed.length() - 1 ? length - 1 : Long.parseLong(trimmed.substring(dash + 1));
+                    if (end < start) {
+                        return null;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < length) {
+                ranges.add(new long[]{start, end});
+            }
+        }
+
+        long requested = 0;
+        for (long[] range : ranges) {
+            requested += range[1] - range[0] + 1;
+        }
+        if (requested > length) {
+            return null;
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        if (merged.size() == 1 && merged.get(0)[0] == 0 && merged.get(0)[1] == length - 1) {
+            return null;
+        }
+        return merged;
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isUnderStorage(Path file) {
+        return file.toAbsolutePath().normalize().startsWith(storageRoot());
+    }
+
+    private Path storageRoot() {
+        return Path.of(storagePath).toAbsolutePath().normalize();
+    }
+}
@@ -1,11 +1,15 @@
 package com.summarizer.service;
 
 import com.summarizer.entity.Document;
+import com.summarizer.entity.DocumentContent;
 import com.summarizer.exception.FileProcessingException;
 import com.summarizer.exception.ResourceNotFoundException;
+import com.summarizer.model.IngestedFile;
+import com.summarizer.repository.DocumentContentRepository;
 import com.summarizer.repository.DocumentRepository;
-import org.apache.tika.Tika;
+import com.summarizer.util.TextNormalizer;
 import org.apache.tika.exception.TikaException;
+import org.xml.sax.SAXException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,9 +22,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,9 +33,6 @@ import java.util.UUID;
 @Transactional
 public class DocumentProcessingService {
 
-    @Value("${file.storage.path}")
-    private String storagePath;
-
     @Value("${file.max-size}")
     private Long maxFileSize;
 
@@ -48,6 +50,21 @@ public class DocumentProcessingService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Autowired
+    private UploadIngestionPipeline uploadIngestionPipeline;
+
+    @Autowired
+    private TextExtractionEngine textExtractionEngine;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private SearchEngine searchEngine;
+
     public Document processUploadedFile(MultipartFile file, UUID userId) throws IOException, TikaException {
         // Validate file
         validateFile(file);
@@ -55,36 +72,88 @@ public class DocumentProcessingService {
         // Create file metadata
         String originalFilename = file.getOriginalFilename();
         String fileExtension = getFileExtension(originalFilename);
-        String fileType = determineFileType(file, fileExtension);
 
-        // Create user's directory if it doesn't exist
-        Path userDir = Path.of(storagePath, userId.toString());
-        if (!Files.exists(userDir)) {
-            Files.createDirectories(userDir);
+        // Stage the upload under a unique name until its hash is known
+        Path stagingPath = newStagingPath(fileExtension);
+
+        // Read the upload once: store it, hash it and extract its text in a single pass
+        IngestedFile ingested;
+        Path blobPath;
+        try {
+            ingested = uploadIngestionPipeline.ingest(file.getInputStream(), stagingPath,
+                    stream -> extractText(stream, fileExtension, file.getSize()));
+            blobPath = blobStore.store(stagingPath, ingested.getSha256(), ingested.getSize());
+        } catch (IOException | RuntimeException e) {
+            deleteDocumentFile(userId, stagingPath.toString());
+            throw e;
         }
 
-        // Generate unique file name
-        String uniqueFileName = UUID.randomUUID() + fileExtension;
-        Path filePath = userDir.resolve(uniqueFileName);
+        // Create document entity
+        Document document = newDocument(userId, originalFilename, ingested, blobPath);
 
-        // Save file to disk
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Save to database
+        return saveDocument(document, ingested.getExtractedText());
+    }
 
-        // Extract text content
-        String extractedText = extractTextFromFile(file);
+    public Path newStagingPath(String fileExtension) throws IOException {
+        return blobStore.newStagingPath(fileExtension);
+    }
 
-        // Create document entity
+    // Inserts the document together with its extracted text
+    public Document saveDocument(Document document, String extractedText) {
+        Document saved = documentRepository.save(document);
+        String contentText = cleanExtractedText(extractedText);
+        documentContentRepository.save(new DocumentContent(saved.getId(), contentText));
+        searchEngine.documentSaved(saved.getUserId(), saved.getId(), saved.getOriginalFilename(), contentText);
+        return saved;
+    }
+
+    public List<Document> saveDocuments(List<Document> documents, List<String> extractedTexts) {
+        List<Document> saved = documentRepository.saveAll(documents);
+        List<DocumentContent> contents = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            Document document = saved.get(i);
+            String contentText = cleanExtractedText(extractedTexts.get(i));
+            contents.add(new DocumentContent(document.getId(), contentText));
+            searchEngine.documentSaved(document.getUserId(), document.getId(), document.getOriginalFilename(), contentText);
+        }
+        documentContentRepository.saveAll(contents);
+        return saved;
+    }
+
+    // Unsaved document for a stored file; the text is saved alongside it by saveDocument
+    public Document newDocument(UUID userId, String originalFilename, IngestedFile ingested, Path filePath) {
         Document document = new Document();
         document.setUserId(userId);
         document.setOriginalFilename(originalFilename);
-        document.setFileType(fileType);
-        document.setFileSize(file.getSize());
-        document.setContentText(extractedText);
+        document.setFileType(determineFileType(getFileExtension(originalFilename)));
+        document.setContentType(TextExtractionEngine.mediaType(getFileExtension(originalFilename)));
+        document.setFileSize(ingested.getSize());
+        document.setContentHash(ingested.getSha256());
         document.setFilePath(filePath.toString());
         document.setStatus("uploaded");
+        return document;
+    }
 
-        // Save to database
-        return documentRepository.save(document);
+    // Same checks as a direct upload, for a file taken out of an archive. A size of -1 means the
+    // archive didn't record it; the caller then enforces the limit while copying.
+    public void validateArchiveEntry(String filename, long size) {
+        if (size == 0) {
+            throw new FileProcessingException("File is empty");
+        }
+        if (size > maxFileSize) {
+            throw new FileProcessingException("File size exceeds maximum limit of " + (maxFileSize / 1024 / 1024) + "MB");
+        }
+        validateExtension(filename);
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public String extractText(InputStream stream, String fileExtension, long size)
+            throws IOException, TikaException, SAXException {
+        return textExtractionEngine.extract(stream, fileExtension.toLowerCase(), size);
     }
 
     private void validateFile(MultipartFile file) {
@@ -96,7 +165,16 @@ public class DocumentProcessingService {
             throw new FileProcessingException("File size exceeds maximum limit of " + (maxFileSize / 1024 / 1024) + "MB");
         }
 
-        String originalFilename = file.getOriginalFilename();
+        validateExtension(file.getOriginalFilename());
+
+        // Additional content type validation
+        String contentType = file.getContentType();
+        if (contentType != null && !ALLOWED_CONTENT_TYPES.contains(contentType)) {
+            throw new FileProcessingException("File content type not supported. Allowed types: " + ALLOWED_CONTENT_TYPES);
+        }
+    }
+
+    public void validateExtension(String originalFilename) {
         if (originalFilename == null) {
             throw new FileProcessingException("Filename is required");
         }
@@ -105,12 +183,6 @@ public class DocumentProcessingService {
         if (!ALLOWED_EXTENSIONS.contains(fileExtension.toLowerCase())) {
             throw new FileProcessingException("File type not supported. Allowed types: " + ALLOWED_EXTENSIONS);
         }
-
-        // Additional content type validation
-        String contentType = file.getContentType();
-        if (contentType != null && !ALLOWED_CONTENT_TYPES.contains(contentType)) {
-            throw new FileProcessingException("File content type not supported. Allowed types: " + ALLOWED_CONTENT_TYPES);
-        }
     }
 
     private String getFileExtension(String filename) {
@@ -120,7 +192,7 @@ public class DocumentProcessingService {
         return filename.substring(filename.lastIndexOf('.')).toLowerCase();
     }
 
-    private String determineFileType(MultipartFile file, String extension) {
+    private String determineFileType(String extension) {
         if (extension.equals(".pdf")) {
             return "pdf";
         } else if (extension.equals(".txt")) {
@@ -131,31 +203,9 @@ public class DocumentProcessingService {
         return "unknown";
     }
 
-    private String extractTextFromFile(MultipartFile file) throws IOException, TikaException {
-        try (InputStream stream = file.getInputStream()) {
-            Tika tika = new Tika();
-            String text = tika.parseToString(stream);
-
-            // Clean up the extracted text
-            return cleanExtractedText(text);
-        } catch (Exception e) {
-            throw new FileProcessingException("Failed to extract text from file: " + e.getMessage());
-        }
-    }
-
     private String cleanExtractedText(String text) {
-        if (text == null) {
-            return "";
-        }
-
-        // Remove excessive whitespace and normalize line breaks
-        String cleaned = text.trim();
-        cleaned = cleaned.replaceAll("\\r\\n", "\n");
-        cleaned = cleaned.replaceAll("\\r", "\n");
-        cleaned = cleaned.replaceAll("\\n\\s*\\n\\s*\\n", "\n\n"); // Remove excessive blank lines
-        cleaned = cleaned.replaceAll(" +", " "); // Replace multiple spaces with single space
-
-        return cleaned;
+        // Remove excessive whitespace and normalize line breaks in one pass
+        return TextNormalizer.normalize(text);
     }
 
     public void updateDocumentStatus(UUID documentId, String status) {
@@ -170,9 +220,30 @@ public class DocumentProcessingService {
         documentRepository.save(document);
     }
 
+    // Text for a document whose extraction ran after the row was saved
+    public void completeExtraction(UUID documentId, String text) {
+        Document document = documentRepository.findById(documentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
+
+        DocumentContent content = documentContentRepository.findById(documentId)
+            .orElseGet(() -> new DocumentContent(documentId, null));
+        content.setContentText(cleanExtractedText(text));
+        documentContentRepository.save(content);
+
+        document.setStatus("uploaded");
+        documentRepository.save(document);
+        searchEngine.documentSaved(document.getUserId(), documentId, document.getOriginalFilename(), content.getContentText());
+    }
+
+    // Shared blobs are only removed with their last reference; staging files and files stored
+    // before blobs existed are deleted directly
     public void deleteDocumentFile(UUID userId, String filePath) {
+        Path path = Path.of(filePath);
+        if (blobStore.isBlob(path)) {
+            blobStore.release(path);
+            return;
+        }
         try {
-            Path path = Path.of(filePath);
             if (Files.exists(path)) {
                 Files.delete(path);
             }
@@ -0,0 +1,51 @@
+package com.summarizer.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Leading sentences of the document; what callers get when their provider fails
+@Component
+public class ExtractiveFallbackProvider implements SummarizationProvider {
+
+    public static final String ID = "extractive-fallback";
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getModelName() {
+        return ID;
+    }
+
+    @Override
+    public boolean requiresChunking() {
+        return false;
+    }
+
+    @Override
+    public String summarize(String contentText, BigDecimal summaryRatio) {
+        // Improved fallback summarization: Extract first N sentences
+        if (contentText == null || contentText.isEmpty()) {
+            return "";
+        }
+
+        // Split by sentence boundaries (period followed by space or newline)
+        String[] sentences = contentText.split("(?<=\\.)\\s+");
+        int totalSentences = sentences.length;
+        int targetSentenceCount = Math.max(1, (int) (totalSentences * summaryRatio.doubleValue()));
+
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < Math.min(targetSentenceCount, totalSentences); i++) {
+            summary.append(sentences[i]).append(" ");
+            // Limit fallback summary to reasonable length (e.g., 1000 chars) to avoid huge texts
+            if (summary.length() > 1000) {
+                break;
+            }
+        }
+
+        return summary.toString().trim();
+    }
+}
@@ -0,0 +1,204 @@
+package com.summarizer.service;
+
+import com.summarizer.config.AbortableExchange;
+import com.summarizer.exception.AIServiceException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs a remote AI call within a latency budget. If the first attempt is still running at the
+// provider's recent p95, a second (hedged) attempt is started and the first answer wins; the
+// other is aborted, which closes its connection and hands back its thread and concurrency slot
+// instead of leaving it to run into the client's total timeout. Transient failures (5xx, I/O)
+// are retried with jittered exponential backoff while the budget allows.
+@Component
+public class HedgedAICaller {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgedAICaller.class);
+
+    @Autowired
+    @Qualifier("aiAttemptExecutor")
+    private ThreadPoolTaskExecutor aiAttemptExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.hedging.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.hedging.budget-ms:90000}")
+    private long budgetMs;
+
+    // Hedge delay until enough latencies are known, and the floor afterwards
+    @Value("${ai.hedging.min-delay-ms:1000}")
+    private long minDelayMs;
+
+    @Value("${ai.hedging.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${ai.hedging.backoff-base-ms:200}")
+    private long backoffBaseMs;
+
+    @Value("${ai.hedging.backoff-max-ms:2000}")
+    private long backoffMaxMs;
+
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    public String call(SummarizationProvider provider, Supplier<String> attempt) {
+        if (!enabled || !provider.isRemote()) {
+            return attempt.get();
+        }
+
+        String id = provider.getId();
+        long deadline = System.currentTimeMillis() + budgetMs;
+        int retries = 0;
+        while (true) {
+            try {
+                return hedged(id, attempt, deadline);
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || retries >= maxRetries) {
+                    throw e;
+                }
+                // Full jitter: anywhere between zero and the exponential step
+                long step = Math.min(backoffMaxMs, backoffBaseMs << retries);
+                long backoff = ThreadLocalRandom.current().nextLong(step + 1);
+                if (System.currentTimeMillis() + backoff >= deadline) {
+                    throw e;
+                }
+                retries++;
+                meterRegistry.counter("ai.calls.retried", "provider", id).increment();
+                log.debug("Retrying {} call in {}ms after: {}", id, backoff, e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    private String hedged(String id, Supplier<String> attempt, long deadline) {
+        LatencyTracker tracker = trackers.computeIfAbsent(id, this::newTracker);
+        ExecutorCompletionService<String> attempts = new ExecutorCompletionService<>(aiAttemptExecutor);
+        List<Future<String>> started = new ArrayList<>(2);
+        List<AbortableExchange> exchanges = new ArrayList<>(2);
+
+        try {
+            AbortableExchange exchange = new AbortableExchange();
+            started.add(attempts.submit(() -> exchange.run(() -> timed(tracker, attempt))));
+            exchanges.add(exchange);
+        } catch (TaskRejectedException e) {
+            // No spare attempt threads; run it here without a hedge
+            return timed(tracker, attempt);
+        }
+
+        try {
+            long hedgeAt = System.currentTimeMillis() + Math.max(minDelayMs, tracker.getP95());
+            RuntimeException lastFailure = null;
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (now >= deadline) {
+                    meterRegistry.counter("ai.calls.budget-exceeded", "provider", id).increment();
+                    throw new AIServiceException("AI call to " + id + " exceeded its " + budgetMs + "ms budget");
+                }
+
+                boolean canHedge = started.size() == 1 && hedgeAt < deadline;
+                long waitUntil = canHedge ? Math.min(hedgeAt, deadline) : deadline;
+                Future<String> done = attempts.poll(Math.max(0, waitUntil - now), TimeUnit.MILLISECONDS);
+
+                if (done != null) {
+                    try {
+                        String result = done.get();
+                        if (started.size() > 1 && done == started.get(1)) {
+                            meterRegistry.counter("ai.calls.hedge-won", "provider", id).increment();
+                        }
+                        return result;
+                    } catch (ExecutionException e) {
+                        lastFailure = e.getCause() instanceof RuntimeException cause
+                            ? cause : new AIServiceException(e.getCause().getMessage(), e.getCause());
+                        // Wait for the other attempt if there is one still running
+                        if (started.stream().allMatch(Future::isDone)) {
+                            throw lastFailure;
+                        }
+                        continue;
+                    }
+                }
+
+                if (canHedge && System.currentTimeMillis() >= hedgeAt) {
+                    try {
+                        AbortableExchange exchange = new AbortableExchange();
+                        started.add(attempts.submit(() -> exchange.run(() -> timed(tracker, attempt))));
+                        exchanges.add(exchange);
+                        meterRegistry.counter("ai.calls.hedged", "provider", id).increment();
+                    } catch (TaskRejectedException e) {
+                        // Pool saturated: no hedge, keep waiting on the first attempt
+                        hedgeAt = Long.MAX_VALUE;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while waiting for " + id, e);
+        } finally {
+            for (int i = 0; i < started.size(); i++) {
+                Future<String> future = started.get(i);
+                if (future.isDone()) {
+                    continue;
+                }
+                // Interrupt first so the guard sees a cancelled call rather than a failed one
+                future.cancel(true);
+                if (exchanges.get(i).abort()) {
+                    meterRegistry.counter("ai.calls.cancelled", "provider", id).increment();
+                }
+            }
+        }
+    }
+
+    private String timed(LatencyTracker tracker, Supplier<String> attempt) {
+        long start = System.currentTimeMillis();
+        String result = attempt.get();
+        tracker.record(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private LatencyTracker newTracker(String id) {
+        LatencyTracker tracker = new LatencyTracker(256, 20);
+        Gauge.builder("ai.calls.hedge-delay", tracker, t -> Math.max(minDelayMs, t.getP95()))
+            .tag("provider", id)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        return tracker;
+    }
+
+    private boolean isTransient(RuntimeException e) {
+        if (e instanceof HttpServerErrorException serverError) {
+            return serverError.getStatusCode().value() != 501;
+        }
+        return e instanceof ResourceAccessException;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while backing off", e);
+        }
+    }
+}
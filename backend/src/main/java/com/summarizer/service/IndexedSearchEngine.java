@@ -0,0 +1,755 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import com.summarizer.model.DocumentIndexKey;
+import com.summarizer.model.DocumentIndexSource;
+import com.summarizer.model.SearchHit;
+import com.summarizer.model.SummaryIndexSource;
+import com.summarizer.model.SummaryView;
+import com.summarizer.repository.DocumentRepository;
+import com.summarizer.repository.SummaryRepository;
+import com.summarizer.util.Cursors;
+import com.summarizer.util.SearchTokenizer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// In-JVM search: one BM25 partition per user for documents (file name and text) and one for
+// summaries, updated after each commit that touches them. Partitions are written to segment files
+// under search.index.path and mapped back in on first use after a restart; once a partition is
+// saved its postings are read from the mapping, so only changes since the last flush sit in the
+// heap. Every change is also
+// appended to a journal before it commits; a flush saves the changed partitions, records a
+// checkpoint and drops the journals whose changes are all in saved segments. Startup re-indexes
+// records created after the checkpoint and replays the remaining journals, re-reading each record
+// they name (or removing it when it is gone), so edits and deletes that never reached a segment
+// are not lost in a crash. Until that catch-up is done, and for search.engine=database, searches
+// go to Postgres instead.
+//
+// The index only sees its own JVM's hooks. With several replicas, each needs its own directory
+// (search.index.instance-id); one that finds its directory locked by another process searches
+// Postgres. With search.index.distributed, every committed change is also published over Redis and
+// the other replicas re-read the record, the same way a journal replay does. A replica that
+// misses messages (Redis down, subscription dropped) still drops deleted hits when a search meets
+// them, and picks up everything else on its next start.
+@Service
+@Primary
+public class IndexedSearchEngine implements SearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexedSearchEngine.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("journal-(\\d{1,18})\\.log");
+    private static final String DOCUMENT_CHANGE = "D";
+    private static final String SUMMARY_CHANGE = "S";
+    private static final String LOCK_FILE = "lock";
+    private static final String CHANGES_CHANNEL = "search-index:changes";
+    private static final LocalDateTime FULL_BUILD_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Quoted phrases, "or" and -exclusions mean something to websearch_to_tsquery but not to the
+    // index, which only ANDs terms, so such queries go to the database. SearchTokenizer stems and
+    // drops stop words as the english configuration does, but the two still differ at the edges:
+    // Postgres also indexes hyphenated words whole and keeps URLs, e-mail addresses and paths as
+    // single tokens, and its document search matches any substring of the file name.
+    private static final Pattern QUERY_OPERATORS = Pattern.compile("\"|(^|\\s)-\\S|(^|\\s)or(\\s|$)",
+            Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private DatabaseSearchEngine databaseSearchEngine;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Value("${search.engine:index}")
+    private String engine;
+
+    @Value("${search.index.path:./search-index}")
+    private String indexPath;
+
+    // Subdirectory of search.index.path for this replica; empty uses search.index.path itself
+    @Value("${search.index.instance-id:}")
+    private String instanceId;
+
+    @Value("${search.index.distributed:false}")
+    private boolean distributed;
+
+    @Value("${search.index.bm25-k1:1.2}")
+    private double k1;
+
+    @Value("${search.index.bm25-b:0.75}")
+    private double b;
+
+    // A file name term counts as this many occurrences in the text
+    @Value("${search.index.filename-boost:3}")
+    private int filenameBoost;
+
+    @Value("${search.index.max-chars:1000000}")
+    private int maxChars;
+
+    @Value("${search.index.catch-up-batch-size:200}")
+    private int catchUpBatchSize;
+
+    // Catch-up loads document text in groups of at most this many characters (at least one document)
+    @Value("${search.index.catch-up-batch-chars:20000000}")
+    private long catchUpBatchChars;
+
+    // Records are timestamped before they commit, so catch-up starts this far before the checkpoint
+    @Value("${search.index.catch-up-overlap-minutes:10}")
+    private long catchUpOverlapMinutes;
+
+    private final Map<UUID, SearchIndexPartition> documentPartitions = new ConcurrentHashMap<>();
+    private final Map<UUID, SearchIndexPartition> summaryPartitions = new ConcurrentHashMap<>();
+
+    // Users whose segment couldn't be read search the database until the next full build
+    private final Set<UUID> unindexedUsers = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+    private volatile boolean checkpointValid = true;
+
+    // Journal the hooks append to; flush starts a new generation each time
+    private final Object journalLock = new Object();
+    private Writer journal;
+    private long journalGeneration;
+
+    // Changes other replicas published, applied in batches once the index is ready
+    private final Map<UUID, UUID> remoteDocuments = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> remoteSummaries = new ConcurrentHashMap<>();
+    private final String origin = UUID.randomUUID().toString();
+    private RedisMessageListenerContainer listenerContainer;
+
+    private FileChannel lockChannel;
+    private boolean enabled;
+    private Path root;
+    private Path documentsDir;
+    private Path summariesDir;
+
+    @PostConstruct
+    void init() {
+        enabled = "index".equalsIgnoreCase(engine);
+        if (!enabled) {
+            return;
+        }
+        Path base = Path.of(indexPath);
+        root = (instanceId.isBlank() ? base : base.resolve(instanceId)).toAbsolutePath().normalize();
+        documentsDir = root.resolve("documents");
+        summariesDir = root.resolve("summaries");
+        try {
+            Files.createDirectories(documentsDir);
+            Files.createDirectories(summariesDir);
+            if (!lockDirectory()) {
+                log.warn("Search index directory {} is in use by another instance; searches will use the database. " +
+                        "Give each replica its own search.index.instance-id.", root);
+                enabled = false;
+                return;
+            }
+            // Journals left by the previous run are replayed by catch-up, then dropped by a later flush
+            List<Path> previous = listJournals();
+            journalGeneration = previous.isEmpty() ? 0 : generationOf(previous.get(previous.size() - 1)) + 1;
+            journal = openJournal(journalGeneration);
+        } catch (IOException e) {
+            log.error("Search index directory {} is unusable; searches will use the database", root, e);
+            enabled = false;
+            return;
+        }
+        if (distributed) {
+            subscribe();
+        }
+
+        Thread loader = new Thread(this::catchUp, "search-index-catch-up");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public Page<Document> searchDocuments(UUID userId, String query, Pageable pageable) {
+        List<String> terms = SearchTokenizer.terms(query);
+        if (useDatabase(userId, query, terms)) {
+            return databaseSearchEngine.searchDocuments(userId, query, pageable);
+        }
+
+        SearchIndexPartition partition = partition(documentPartitions, documentsDir, userId);
+        List<SearchHit> hits = partition.search(terms, k1, b);
+        List<UUID> ids = pageIds(hits, pageable);
+
+        Map<UUID, Document> found = new HashMap<>();
+        for (Document document : documentRepository.findAllById(ids)) {
+            if (document.getUserId().equals(userId)) {
+                found.put(document.getId(), document);
+            }
+        }
+        List<Document> content = new ArrayList<>(found.size());
+        int missing = 0;
+        for (UUID id : ids) {
+            Document document = found.get(id);
+            if (document != null) {
+                content.add(document);
+            } else {
+                // Deleted without the hook seeing it (e.g. before a crash); drop it now
+                partition.remove(id);
+                missing++;
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.size() - missing);
+    }
+
+    @Override
+    public Page<SummaryView> searchSummaries(UUID userId, String query, Pageable pageable) {
+        List<String> terms = SearchTokenizer.terms(query);
+        if (useDatabase(userId, query, terms)) {
+            return databaseSearchEngine.searchSummaries(userId, query, pageable);
+        }
+
+        SearchIndexPartition partition = partition(summaryPartitions, summariesDir, userId);
+        List<SearchHit> hits = partition.search(terms, k1, b);
+        List<UUID> ids = pageIds(hits, pageable);
+
+        Map<UUID, SummaryView> found = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (SummaryView view : summaryRepository.findViewsByIdInAndUserId(ids, userId)) {
+                found.put(view.getId(), view);
+            }
+        }
+        List<SummaryView> content = new ArrayList<>(found.size());
+        int missing = 0;
+        for (UUID id : ids) {
+            SummaryView view = found.get(id);
+            if (view != null) {
+                content.add(view);
+            } else {
+                // Summaries go with their document through a cascade the hooks don't see
+                partition.remove(id);
+                missing++;
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.size() - missing);
+    }
+
+    @Override
+    public void documentSaved(UUID userId, UUID documentId, String filename, String contentText) {
+        onChange(DOCUMENT_CHANGE, userId, documentId, () -> indexDocument(userId, documentId, filename, contentText));
+    }
+
+    @Override
+    public void documentDeleted(UUID userId, UUID documentId) {
+        onChange(DOCUMENT_CHANGE, userId, documentId,
+                () -> partition(documentPartitions, documentsDir, userId).remove(documentId));
+    }
+
+    @Override
+    public void summarySaved(UUID userId, UUID summaryId, String summaryText) {
+        onChange(SUMMARY_CHANGE, userId, summaryId, () -> indexSummary(userId, summaryId, summaryText));
+    }
+
+    @Override
+    public void summaryDeleted(UUID userId, UUID summaryId) {
+        onChange(SUMMARY_CHANGE, userId, summaryId,
+                () -> partition(summaryPartitions, summariesDir, userId).remove(summaryId));
+    }
+
+    // Journals the change, applies it after commit and tells the other replicas. A replica without
+    // a usable index of its own still publishes its writes for the others.
+    private void onChange(String kind, UUID userId, UUID id, Runnable apply) {
+        if (!enabled && !distributed) {
+            return;
+        }
+        boolean indexed = enabled;
+        if (indexed) {
+            recordChange(kind, userId, id);
+        }
+        afterCommit(() -> {
+            if (indexed) {
+                apply.run();
+            }
+            publish(kind, userId, id);
+        });
+    }
+
+    // Writes changed partitions, then moves the checkpoint up to when this flush started. A change
+    // journaled before the flush may only be applied (after its commit) once its partition has been
+    // saved, so the journal sealed here is kept until the next flush has saved that partition too.
+    @Scheduled(fixedDelayString = "${search.index.flush-interval-ms:30000}",
+               initialDelayString = "${search.index.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        if (!enabled || !ready) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        long sealed = rotateJournal();
+        int failed = save(documentPartitions, documentsDir) + save(summaryPartitions, summariesDir);
+        Path checkpoint = root.resolve(CHECKPOINT_FILE);
+        try {
+            if (!checkpointValid) {
+                Files.deleteIfExists(checkpoint);
+            } else if (failed == 0) {
+                Path temp = checkpoint.resolveSibling(CHECKPOINT_FILE + ".tmp");
+                Files.writeString(temp, SearchTokenizer.VERSION + " " + started, StandardCharsets.UTF_8);
+                Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                for (Path file : listJournals()) {
+                    if (generationOf(file) < sealed) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write search index checkpoint: {}", e.getMessage());
+        }
+    }
+
+    // Re-reads the records other replicas changed; the ids were journaled when they arrived
+    @Scheduled(fixedDelayString = "${search.index.remote-apply-interval-ms:1000}")
+    public void applyRemoteChanges() {
+        if (!enabled || !ready) {
+            return;
+        }
+        Map<UUID, UUID> documents = drain(remoteDocuments);
+        Map<UUID, UUID> summaries = drain(remoteSummaries);
+        try {
+            replayDocuments(documents);
+            replaySummaries(summaries);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply search index changes from other instances: {}", e.getMessage());
+            documents.forEach(remoteDocuments::putIfAbsent);
+            summaries.forEach(remoteSummaries::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (listenerContainer != null) {
+            listenerContainer.stop();
+        }
+        flush();
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                log.warn("Failed to release search index lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Without a checkpoint (or with an unreadable journal) every record is indexed from scratch;
+    // with one, only the recent ones and the ones the journals name
+    private void catchUp() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<UUID, UUID> journaledDocuments = new HashMap<>();
+            Map<UUID, UUID> journaledSummaries = new HashMap<>();
+            LocalDateTime since = readCheckpoint();
+            if (since == null || !readJournals(journaledDocuments, journaledSummaries)) {
+                deleteSegments(documentsDir);
+                deleteSegments(summariesDir);
+                since = FULL_BUILD_START;
+            } else {
+                since = since.minusMinutes(catchUpOverlapMinutes);
+            }
+
+            int documents = 0;
+            LocalDateTime afterTimestamp = since;
+            UUID afterId = Cursors.MIN_ID;
+            List<DocumentIndexKey> documentBatch;
+            do {
+                documentBatch = documentRepository.findIndexKeys(afterTimestamp, afterId, maxChars, catchUpBatchSize);
+                indexDocuments(documentBatch);
+                if (!documentBatch.isEmpty()) {
+                    DocumentIndexKey last = documentBatch.get(documentBatch.size() - 1);
+                    afterTimestamp = last.getUploadTimestamp();
+                    afterId = last.getId();
+                }
+                documents += documentBatch.size();
+            } while (documentBatch.size() == catchUpBatchSize);
+
+            int summaries = 0;
+            afterTimestamp = since;
+            afterId = Cursors.MIN_ID;
+            List<SummaryIndexSource> summaryBatch;
+            do {
+                summaryBatch = summaryRepository.findIndexSources(afterTimestamp, afterId, maxChars, catchUpBatchSize);
+                for (SummaryIndexSource source : summaryBatch) {
+                    indexSummary(source.getUserId(), source.getId(), source.getSummaryText());
+                    afterTimestamp = source.getCreatedAt();
+                    afterId = source.getId();
+                }
+                summaries += summaryBatch.size();
+            } while (summaryBatch.size() == catchUpBatchSize);
+
+            replayDocuments(journaledDocuments);
+            replaySummaries(journaledSummaries);
+
+            ready = true;
+            log.info("Search index ready: {} documents and {} summaries indexed since {}, {} journaled changes replayed in {} ms",
+                    documents, summaries, since, journaledDocuments.size() + journaledSummaries.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Search index catch-up failed; searches will use the database", e);
+        }
+    }
+
+    // Journaled documents that still exist are re-read and re-indexed; the rest are removed
+    private void replayDocuments(Map<UUID, UUID> journaled) {
+        List<UUID> ids = new ArrayList<>(journaled.keySet());
+        for (int from = 0; from < ids.size(); from += catchUpBatchSize) {
+            List<UUID> batch = ids.subList(from, Math.min(from + catchUpBatchSize, ids.size()));
+            Set<UUID> present = indexDocuments(documentRepository.findIndexKeysByIdIn(batch, maxChars));
+            for (UUID id : batch) {
+                if (!present.contains(id)) {
+                    partition(documentPartitions, documentsDir, journaled.get(id)).remove(id);
+                }
+            }
+        }
+    }
+
+    private void replaySummaries(Map<UUID, UUID> journaled) {
+        List<UUID> ids = new ArrayList<>(journaled.keySet());
+        for (int from = 0; from < ids.size(); from += catchUpBatchSize) {
+            List<UUID> batch = ids.subList(from, Math.min(from + catchUpBatchSize, ids.size()));
+            Set<UUID> present = new HashSet<>();
+            for (SummaryIndexSource source : summaryRepository.findIndexSourcesByIdIn(batch, maxChars)) {
+                indexSummary(source.getUserId(), source.getId(), source.getSummaryText());
+                present.add(source.getId());
+            }
+            for (UUID id : batch) {
+                if (!present.contains(id)) {
+                    partition(summaryPartitions, summariesDir, journaled.get(id)).remove(id);
+                }
+            }
+        }
+    }
+
+    // Loads and indexes the documents' text a size-bounded group at a time; returns the ids indexed
+    private Set<UUID> indexDocuments(List<DocumentIndexKey> keys) {
+        Set<UUID> indexed = new HashSet<>();
+        List<UUID> group = new ArrayList<>();
+        long groupChars = 0;
+        for (DocumentIndexKey key : keys) {
+            long chars = key.getTextLength() == null ? 0 : key.getTextLength();
+            if (!group.isEmpty() && groupChars + chars > catchUpBatchChars) {
+                indexDocumentGroup(group, indexed);
+                group.clear();
+                groupChars = 0;
+            }
+            group.add(key.getId());
+            groupChars += chars;
+        }
+        if (!group.isEmpty()) {
+            indexDocumentGroup(group, indexed);
+        }
+        return indexed;
+    }
+
+    private void indexDocumentGroup(List<UUID> ids, Set<UUID> indexed) {
+        for (DocumentIndexSource source : documentRepository.findIndexSourcesByIdIn(ids, maxChars)) {
+            indexDocument(source.getUserId(), source.getId(), source.getOriginalFilename(), source.getContentText());
+            indexed.add(source.getId());
+        }
+    }
+
+    private void indexDocument(UUID userId, UUID documentId, String filename, String contentText) {
+        try {
+            Map<String, Integer> counts = new HashMap<>();
+            int length = SearchTokenizer.countTerms(filename, maxChars, filenameBoost, counts)
+                    + SearchTokenizer.countTerms(contentText, maxChars, 1, counts);
+            partition(documentPartitions, documentsDir, userId).put(documentId, counts, length);
+        } catch (RuntimeException e) {
+            log.warn("Failed to index document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private void indexSummary(UUID userId, UUID summaryId, String summaryText) {
+        try {
+            Map<String, Integer> counts = new HashMap<>();
+            int length = SearchTokenizer.countTerms(summaryText, maxChars, 1, counts);
+            partition(summaryPartitions, summariesDir, userId).put(summaryId, counts, length);
+        } catch (RuntimeException e) {
+            log.warn("Failed to index summary {}: {}", summaryId, e.getMessage());
+        }
+    }
+
+    private boolean useDatabase(UUID userId, String query, List<String> terms) {
+        return !ready || terms.isEmpty() || unindexedUsers.contains(userId) || QUERY_OPERATORS.matcher(query).find();
+    }
+
+    private SearchIndexPartition partition(Map<UUID, SearchIndexPartition> partitions, Path dir, UUID userId) {
+        return partitions.computeIfAbsent(userId, id -> {
+            Path segment = dir.resolve(id + SEGMENT_SUFFIX);
+            if (!Files.exists(segment)) {
+                return new SearchIndexPartition();
+            }
+            try {
+                return SearchIndexPartition.load(segment);
+            } catch (IOException | RuntimeException e) {
+                // Serve this user from the database and rebuild everything on the next start
+                log.error("Search index segment {} is unreadable: {}", segment, e.getMessage());
+                unindexedUsers.add(id);
+                checkpointValid = false;
+                return new SearchIndexPartition();
+            }
+        });
+    }
+
+    private int save(Map<UUID, SearchIndexPartition> partitions, Path dir) {
+        int failed = 0;
+        for (Map.Entry<UUID, SearchIndexPartition> entry : partitions.entrySet()) {
+            if (!entry.getValue().isDirty()) {
+                continue;
+            }
+            try {
+                entry.getValue().save(dir.resolve(entry.getKey() + SEGMENT_SUFFIX));
+            } catch (IOException e) {
+                log.warn("Failed to write search index segment for user {}: {}", entry.getKey(), e.getMessage());
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    // The checkpoint names the tokenizer version its segments were built with; terms from another
+    // version wouldn't match today's queries, so those segments are rebuilt
+    private LocalDateTime readCheckpoint() {
+        Path checkpoint = root.resolve(CHECKPOINT_FILE);
+        try {
+            if (!Files.exists(checkpoint)) {
+                return null;
+            }
+            String[] fields = Files.readString(checkpoint).trim().split(" ");
+            if (fields.length != 2 || Integer.parseInt(fields[0]) != SearchTokenizer.VERSION) {
+                log.info("Search index was built with another tokenizer version; rebuilding it");
+                return null;
+            }
+            return LocalDateTime.parse(fields[1]);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable search index checkpoint: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Recorded before the change commits; replaying one that rolled back just re-reads the row
+    private void recordChange(String kind, UUID userId, UUID id) {
+        synchronized (journalLock) {
+            try {
+                journal.write(kind + " " + userId + " " + id + "\n");
+                journal.flush();
+            } catch (IOException e) {
+                // A crash could now lose this change, so rebuild from scratch on the next start
+                log.warn("Failed to journal search index change for {}: {}", id, e.getMessage());
+                checkpointValid = false;
+            }
+        }
+    }
+
+    // Starts a new journal generation and returns the one it sealed
+    private long rotateJournal() {
+        synchronized (journalLock) {
+            long sealed = journalGeneration;
+            try {
+                Writer next = openJournal(sealed + 1);
+                journal.close();
+                journal = next;
+                journalGeneration = sealed + 1;
+            } catch (IOException e) {
+                // Keep appending to the current one; it is sealed by a later flush instead
+                log.warn("Failed to start a new search index journal: {}", e.getMessage());
+            }
+            return sealed;
+        }
+    }
+
+    // Another process using the same directory would overwrite this one's segments and journals
+    private boolean lockDirectory() throws IOException {
+        FileChannel channel = FileChannel.open(root.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() != null) {
+                lockChannel = channel;
+                return true;
+            }
+        } catch (OverlappingFileLockException e) {
+            // held by another index in this JVM
+        }
+        channel.close();
+        return false;
+    }
+
+    private void subscribe() {
+        try {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisConnectionFactory);
+            container.addMessageListener((message, pattern) ->
+                    receive(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANGES_CHANNEL));
+            container.afterPropertiesSet();
+            container.start();
+            listenerContainer = container;
+        } catch (RuntimeException e) {
+            log.warn("Could not subscribe to search index changes; changes made on other instances are " +
+                    "picked up on the next start: {}", e.getMessage());
+        }
+    }
+
+    private void publish(String kind, UUID userId, UUID id) {
+        if (!distributed) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CHANGES_CHANNEL, origin + " " + kind + " " + userId + " " + id);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish search index change for {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void receive(String body) {
+        String[] fields = body.split(" ");
+        if (fields.length != 4 || fields[0].equals(origin)) {
+            return;
+        }
+        try {
+            UUID userId = UUID.fromString(fields[2]);
+            UUID id = UUID.fromString(fields[3]);
+            if (DOCUMENT_CHANGE.equals(fields[1])) {
+                recordChange(DOCUMENT_CHANGE, userId, id);
+                remoteDocuments.put(id, userId);
+            } else if (SUMMARY_CHANGE.equals(fields[1])) {
+                recordChange(SUMMARY_CHANGE, userId, id);
+                remoteSummaries.put(id, userId);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed search index change: {}", body);
+        }
+    }
+
+    private static Map<UUID, UUID> drain(Map<UUID, UUID> pending) {
+        Map<UUID, UUID> drained = new HashMap<>();
+        for (UUID id : pending.keySet()) {
+            UUID userId = pending.remove(id);
+            if (userId != null) {
+                drained.put(id, userId);
+            }
+        }
+        return drained;
+    }
+
+    private Writer openJournal(long generation) throws IOException {
+        return Files.newBufferedWriter(root.resolve("journal-" + generation + ".log"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Collects record id -> user id per kind; false when a journal can't be read
+    private boolean readJournals(Map<UUID, UUID> documents, Map<UUID, UUID> summaries) {
+        try {
+            for (Path file : listJournals()) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split(" ");
+                    if (fields.length != 3 || fields[1].length() != 36 || fields[2].length() != 36) {
+                        // A line torn by the crash; its change had not committed yet
+                        continue;
+                    }
+                    UUID userId = UUID.fromString(fields[1]);
+                    UUID id = UUID.fromString(fields[2]);
+                    if (DOCUMENT_CHANGE.equals(fields[0])) {
+                        documents.put(id, userId);
+                    } else if (SUMMARY_CHANGE.equals(fields[0])) {
+                        summaries.put(id, userId);
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unreadable search index journal, rebuilding the index: {}", e.getMessage());
+            documents.clear();
+            summaries.clear();
+            return false;
+        }
+    }
+
+    private List<Path> listJournals() throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files
+                    .filter(file -> JOURNAL_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(IndexedSearchEngine::generationOf))
+                    .toList();
+        }
+    }
+
+    private static long generationOf(Path file) {
+        Matcher matcher = JOURNAL_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private void deleteSegments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static List<UUID> pageIds(List<SearchHit> hits, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<UUID> ids = new ArrayList<>(to - from);
+        for (SearchHit hit : hits.subList(from, to)) {
+            ids.add(hit.getId());
+        }
+        return ids;
+    }
+
+    // Index only what actually committed; outside a transaction the change is already in
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
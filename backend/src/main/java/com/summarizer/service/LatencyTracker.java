@@ -0,0 +1,40 @@
+package com.summarizer.service;
+
+import java.util.Arrays;
+
+// Recent call latencies in a ring buffer; the percentile is recomputed every few samples
+class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final int minSamples;
+    private int index;
+    private int count;
+    private int sinceRecompute;
+    private long p95 = -1;
+
+    LatencyTracker(int size, int minSamples) {
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    synchronized void record(long latencyMs) {
+        samples[index] = latencyMs;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY && count >= minSamples) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            p95 = sorted[(int) Math.ceil(count * 0.95) - 1];
+            sinceRecompute = 0;
+        }
+    }
+
+    // -1 until enough samples have been seen
+    synchronized long getP95() {
+        return p95;
+    }
+}
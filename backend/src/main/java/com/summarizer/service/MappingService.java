@@ -2,12 +2,20 @@ package com.summarizer.service;
 
 import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 
+import com.summarizer.dto.DocumentSearchResult;
 import com.summarizer.dto.DocumentUploadResponse;
+import com.summarizer.dto.SummaryJobResponse;
 import com.summarizer.dto.SummaryResponse;
+import com.summarizer.dto.SummarySearchResult;
 import com.summarizer.entity.Document;
 import com.summarizer.entity.Summary;
+import com.summarizer.model.DocumentSearchView;
+import com.summarizer.model.SummaryJob;
+import com.summarizer.model.SummarySearchView;
+import com.summarizer.model.SummaryView;
 
 @Service
 public class MappingService {
@@ -18,11 +26,25 @@ public class MappingService {
     r.setSummaryText(s.getSummaryText());
     r.setSummaryRatio(s.getSummaryRatio());
     r.setModelUsed(s.getModelUsed());
+    r.setProcessingTimeMs(s.getProcessingTimeMs());
+    r.setConfidenceScore(s.getConfidenceScore());
     r.setCreatedAt(s.getCreatedAt());
     r.setDocumentId(s.getDocument() != null ? s.getDocument().getId() : null);
     return r;
 }
 
+public SummaryResponse toSummaryResponse(SummaryView v) {
+    return new SummaryResponse(
+        v.getId(),
+        v.getDocumentId(),
+        v.getSummaryText(),
+        v.getSummaryRatio(),
+        v.getModelUsed(),
+        v.getProcessingTimeMs(),
+        v.getConfidenceScore(),
+        v.getCreatedAt());
+}
+
 public DocumentUploadResponse toDocumentResponse(Document d) {
     DocumentUploadResponse r = new DocumentUploadResponse();
     r.setId(d.getId());
@@ -31,9 +53,44 @@ public DocumentUploadResponse toDocumentResponse(Document d) {
     r.setFileSize(d.getFileSize());
     r.setStatus(d.getStatus());
     r.setUploadTimestamp(d.getUploadTimestamp());
-    if (d.getSummaries() != null) {
+    // Only summaries that were fetched already; touching the lazy collection would query per document
+    if (d.getSummaries() != null && Hibernate.isInitialized(d.getSummaries())) {
         r.setSummaries(d.getSummaries().stream().map(this::toSummaryResponse).collect(Collectors.toList()));
     }
     return r;
 }
+
+public SummarySearchResult toSummarySearchResult(SummarySearchView v) {
+    return new SummarySearchResult(toSummaryResponse(v), v.getRank(), v.getSnippet());
+}
+
+public DocumentSearchResult toDocumentSearchResult(DocumentSearchView v) {
+    DocumentSearchResult r = new DocumentSearchResult();
+    r.setId(v.getId());
+    r.setOriginalFilename(v.getOriginalFilename());
+    r.setFileType(v.getFileType());
+    r.setFileSize(v.getFileSize());
+    r.setStatus(v.getStatus());
+    r.setUploadTimestamp(v.getUploadTimestamp());
+    r.setFilenameMatch(v.getFilenameMatch());
+    r.setRank(v.getRank());
+    r.setSnippet(v.getSnippet());
+    return r;
+}
+
+public SummaryJobResponse toSummaryJobResponse(SummaryJob job) {
+    SummaryJobResponse r = new SummaryJobResponse();
+    r.setJobId(job.getId());
+    r.setDocumentId(job.getDocumentId());
+    r.setSummaryRatio(job.getSummaryRatio());
+    r.setProvider(job.getProvider());
+    r.setStatus(job.getStatus());
+    r.setProgress(job.getProgress());
+    r.setSummary(job.getSummary());
+    r.setError(job.getError());
+    r.setCreatedAt(job.getCreatedAt());
+    r.setStartedAt(job.getStartedAt());
+    r.setCompletedAt(job.getCompletedAt());
+    return r;
+}
 }
@@ -0,0 +1,56 @@
+package com.summarizer.service;
+
+import com.summarizer.exception.AIServiceException;
+import com.summarizer.model.AISummaryRequest;
+import com.summarizer.model.AISummaryResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+// The Python AI service
+@Component
+public class RemoteSummarizationProvider implements SummarizationProvider {
+
+    public static final String ID = "remote";
+
+    @Value("${ai.service.url}")
+    private String aiServiceUrl;
+
+    @Value("${ai.service.model:facebook/bart-large-cnn}")
+    private String modelName;
+
+    @Autowired
+    @Qualifier("aiSummarizeRestTemplate")
+    private RestTemplate summarizeRestTemplate;
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getModelName() {
+        return modelName;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public String summarize(String contentText, BigDecimal summaryRatio) {
+        String url = aiServiceUrl + "/summarize";
+        AISummaryRequest request = new AISummaryRequest(contentText, summaryRatio);
+
+        AISummaryResponse response = summarizeRestTemplate.postForObject(url, request, AISummaryResponse.class);
+        if (response == null || response.getSummaryText() == null) {
+            throw new AIServiceException("Empty response from AI service");
+        }
+        return response.getSummaryText();
+    }
+}
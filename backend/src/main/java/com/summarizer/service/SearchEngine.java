@@ -0,0 +1,29 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import com.summarizer.model.SummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+// Full-text search over one user's documents and summaries. Writers report committed changes
+// through the hooks; an engine that reads straight from the database can ignore them.
+public interface SearchEngine {
+
+    Page<Document> searchDocuments(UUID userId, String query, Pageable pageable);
+
+    Page<SummaryView> searchSummaries(UUID userId, String query, Pageable pageable);
+
+    default void documentSaved(UUID userId, UUID documentId, String filename, String contentText) {
+    }
+
+    default void documentDeleted(UUID userId, UUID documentId) {
+    }
+
+    default void summarySaved(UUID userId, UUID summaryId, String summaryText) {
+    }
+
+    default void summaryDeleted(UUID userId, UUID summaryId) {
+    }
+}
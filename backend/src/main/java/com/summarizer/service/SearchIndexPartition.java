@@ -0,0 +1,299 @@
+package com.summarizer.service;
+
+import com.summarizer.model.SearchHit;
+import com.summarizer.util.PostingList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One user's inverted index over one kind of record (documents or summaries), ranked with BM25.
+// Records get ascending ordinals: re-indexing tombstones the old ordinal and appends a new one,
+// and the partition compacts once tombstones outnumber live records. Searches share the lock.
+//
+// Segment file layout (big-endian): magic, version, ordinal count, total length; per ordinal the
+// id, length and deleted flag; then the term count and per term its UTF-8 bytes, doc count, last
+// ordinal and postings bytes. Loading maps the file and leaves the postings in the mapping, and so
+// does saving: once the segment is written, postings built in heap are swapped for the mapped ones.
+public class SearchIndexPartition {
+
+    private static final int MAGIC = 0x53494458;
+    private static final int VERSION = 1;
+
+    // Below this many tombstones compaction isn't worth it
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<UUID> ids = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private int[] lengths = new int[16];
+    private long totalLength;
+    private volatile boolean dirty;
+
+    // termCounts maps each term to its (weighted) occurrences; length is the record's term count
+    public void put(UUID id, Map<String, Integer> termCounts, int length) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(id);
+            int ordinal = ids.size();
+            ids.add(id);
+            if (ordinal == lengths.length) {
+                lengths = Arrays.copyOf(lengths, ordinal * 2);
+            }
+            lengths[ordinal] = length;
+            ordinals.put(id, ordinal);
+            totalLength += length;
+            for (Map.Entry<String, Integer> term : termCounts.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new PostingList()).add(ordinal, term.getValue());
+            }
+            dirty = true;
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            if (removeOrdinal(id)) {
+                dirty = true;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Every live record containing all of the terms (like a Postgres tsquery of ANDed terms),
+    // best BM25 score first
+    public List<SearchHit> search(List<String> terms, double k1, double b) {
+        lock.readLock().lock();
+        try {
+            int live = ordinals.size();
+            if (live == 0 || terms.isEmpty()) {
+                return List.of();
+            }
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+
+            double averageLength = Math.max(1.0, (double) totalLength / live);
+            double[] scores = new double[ids.size()];
+            int[] matchedTerms = new int[ids.size()];
+            for (PostingList list : lists) {
+                // Postings still count tombstoned records until the next compaction
+                int docFrequency = Math.min(list.size(), live);
+                double idf = Math.log(1 + (live - docFrequency + 0.5) / (docFrequency + 0.5));
+                PostingList.Cursor cursor = list.cursor();
+                while (cursor.next()) {
+                    int doc = cursor.doc();
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    double tf = cursor.freq();
+                    double norm = k1 * (1 - b + b * lengths[doc] / averageLength);
+                    scores[doc] += idf * tf * (k1 + 1) / (tf + norm);
+                    matchedTerms[doc]++;
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (int doc = 0; doc < matchedTerms.length; doc++) {
+                if (matchedTerms[doc] == lists.size()) {
+                    hits.add(new SearchHit(ids.get(doc), scores[doc]));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed().thenComparing(SearchHit::getId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // Writes the partition to a temporary file and moves it over the segment, so a crash leaves
+    // either the old segment or the new one. Then reads postings from the new segment unless the
+    // partition changed while it was being written.
+    public void save(Path segment) throws IOException {
+        write(segment);
+        SearchIndexPartition saved;
+        try {
+            saved = load(segment);
+        } catch (IOException e) {
+            // The segment is written; keep serving from the heap postings, which are still right
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!dirty) {
+                postings.clear();
+                postings.putAll(saved.postings);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Path segment) throws IOException {
+        Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            dirty = false;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ids.size());
+            out.writeLong(totalLength);
+            for (int i = 0; i < ids.size(); i++) {
+                UUID id = ids.get(i);
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                out.writeInt(lengths[i]);
+                out.writeBoolean(deleted.get(i));
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                byte[] term = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                PostingList list = entry.getValue();
+                out.writeShort(term.length);
+                out.write(term);
+                out.writeInt(list.size());
+                out.writeInt(list.lastDoc());
+                out.writeInt(list.byteLength());
+                list.writeTo(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The mapping outlives the channel; postings read from it until compaction rewrites them
+    public static SearchIndexPartition load(Path segment) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a search index segment: " + segment);
+        }
+
+        SearchIndexPartition partition = new SearchIndexPartition();
+        int count = buffer.getInt();
+        partition.totalLength = buffer.getLong();
+        partition.lengths = new int[Math.max(16, count)];
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            partition.ids.add(id);
+            partition.lengths[i] = buffer.getInt();
+            if (buffer.get() != 0) {
+                partition.deleted.set(i);
+            } else {
+                partition.ordinals.put(id, i);
+            }
+        }
+
+        int terms = buffer.getInt();
+        for (int i = 0; i < terms; i++) {
+            byte[] term = new byte[buffer.getShort()];
+            buffer.get(term);
+            int size = buffer.getInt();
+            int lastDoc = buffer.getInt();
+            int byteLength = buffer.getInt();
+            ByteBuffer bytes = buffer.slice(buffer.position(), byteLength);
+            buffer.position(buffer.position() + byteLength);
+            partition.postings.put(new String(term, StandardCharsets.UTF_8), new PostingList(bytes, size, lastDoc));
+        }
+        return partition;
+    }
+
+    private boolean removeOrdinal(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return false;
+        }
+        deleted.set(ordinal);
+        totalLength -= lengths[ordinal];
+        return true;
+    }
+
+    // Renumbers live records densely and rewrites every posting list without the tombstones
+    private void compactIfNeeded() {
+        int tombstones = ids.size() - ordinals.size();
+        if (tombstones < MIN_TOMBSTONES_TO_COMPACT || tombstones <= ordinals.size()) {
+            return;
+        }
+
+        int[] remap = new int[ids.size()];
+        List<UUID> liveIds = new ArrayList<>(ordinals.size());
+        int[] liveLengths = new int[Math.max(16, ordinals.size())];
+        for (int i = 0; i < ids.size(); i++) {
+            if (deleted.get(i)) {
+                remap[i] = -1;
+                continue;
+            }
+            remap[i] = liveIds.size();
+            liveLengths[liveIds.size()] = lengths[i];
+            liveIds.add(ids.get(i));
+        }
+
+        Iterator<Map.Entry<String, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, PostingList> entry = entries.next();
+            PostingList rebuilt = new PostingList();
+            PostingList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next()) {
+                int doc = remap[cursor.doc()];
+                if (doc >= 0) {
+                    rebuilt.add(doc, cursor.freq());
+                }
+            }
+            if (rebuilt.size() == 0) {
+                entries.remove();
+            } else {
+                entry.setValue(rebuilt);
+            }
+        }
+
+        ids.clear();
+        ids.addAll(liveIds);
+        lengths = liveLengths;
+        deleted.clear();
+        ordinals.clear();
+        for (int i = 0; i < ids.size(); i++) {
+            ordinals.put(ids.get(i), i);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.summarizer.service;
+
+import com.summarizer.exception.AIServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+// In-JVM stand-in for the AI service so the Java stack can be load-tested offline. Output is a
+// deterministic function of the input; latency is log-normal around a median and a share of calls
+// fail, both drawn per call.
+@Component
+public class StubSummarizationProvider implements SummarizationProvider {
+
+    public static final String ID = "stub";
+
+    @Value("${summary.stub.latency-median-ms:800}")
+    private double latencyMedianMs;
+
+    // Spread of the log-normal latency; 0 gives a fixed latency
+    @Value("${summary.stub.latency-sigma:0.5}")
+    private double latencySigma;
+
+    @Value("${summary.stub.latency-max-ms:30000}")
+    private long latencyMaxMs;
+
+    @Value("${summary.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public String getModelName() {
+        return ID;
+    }
+
+    // Guarded like the real service so load tests exercise the breaker and limiter too
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public String summarize(String contentText, BigDecimal summaryRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = (long) Math.min(latencyMaxMs,
+            latencyMedianMs * Math.exp(latencySigma * random.nextGaussian()));
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Stub summarization interrupted", e);
+        }
+
+        if (random.nextDouble() < errorRate) {
+            // Looks like a 503 from the real service, so it is retried the same way
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Stub summarization failed after " + latency + "ms");
+        }
+
+        // The leading share of the words, so summaries scale with the ratio like the real model's
+        String[] words = contentText.trim().split("\\s+");
+        int keep = Math.max(1, (int) (words.length * summaryRatio.doubleValue()));
+        return String.join(" ", Arrays.copyOf(words, Math.min(keep, words.length)));
+    }
+}
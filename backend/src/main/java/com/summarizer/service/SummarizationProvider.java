@@ -0,0 +1,24 @@
+package com.summarizer.service;
+
+import java.math.BigDecimal;
+
+// A summarization backend. Requests are routed by id; the model name is what gets recorded as
+// Summary.modelUsed. Implementations throw on failure and leave falling back to AIService.
+public interface SummarizationProvider {
+
+    String getId();
+
+    String getModelName();
+
+    String summarize(String contentText, BigDecimal summaryRatio);
+
+    // Calls leave the JVM, so they go through the circuit breaker and concurrency limit
+    default boolean isRemote() {
+        return false;
+    }
+
+    // Remote models have a small input window, so long documents go through map-reduce chunking
+    default boolean requiresChunking() {
+        return true;
+    }
+}
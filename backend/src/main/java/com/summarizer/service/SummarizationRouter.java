@@ -0,0 +1,65 @@
+package com.summarizer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Picks the provider for a request: an explicit choice on the request wins, then a per-user
+// override, then the configured default
+@Service
+public class SummarizationRouter {
+
+    @Autowired
+    private List<SummarizationProvider> providerList;
+
+    @Value("${summary.engine:remote}")
+    private String defaultProvider;
+
+    // user id -> provider id, e.g. {'<uuid>': 'stub'}
+    @Value("#{${summary.routing.users:{:}}}")
+    private Map<String, String> userProviders;
+
+    private final Map<String, SummarizationProvider> providers = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (SummarizationProvider provider : providerList) {
+            providers.put(provider.getId(), provider);
+        }
+        if (!providers.containsKey(defaultProvider)) {
+            throw new IllegalStateException("Unknown summary.engine '" + defaultProvider + "', expected one of "
+                + providers.keySet());
+        }
+    }
+
+    public String route(String requestedProvider, UUID userId) {
+        if (requestedProvider != null && !requestedProvider.isBlank()) {
+            if (!providers.containsKey(requestedProvider)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown provider '" + requestedProvider + "', expected one of " + providers.keySet());
+            }
+            return requestedProvider;
+        }
+        String userProvider = userProviders.get(userId.toString());
+        if (userProvider != null && providers.containsKey(userProvider)) {
+            return userProvider;
+        }
+        return defaultProvider;
+    }
+
+    public SummarizationProvider get(String providerId) {
+        SummarizationProvider provider = providers.get(providerId);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown provider: " + providerId);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,295 @@
+package com.summarizer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.summarizer.dto.BatchSummaryRequest;
+import com.summarizer.dto.BatchSummaryResult;
+import com.summarizer.entity.Summary;
+import com.summarizer.model.BatchSummaryTask;
+import com.summarizer.repository.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Summarizes many documents for one user: ownership is checked with a single query, the work runs
+// on a bounded pool, finished summaries are inserted in batches and each result is written as
+// one NDJSON line as soon as its batch is stored.
+@Service
+public class SummaryBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryBatchService.class);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private SummaryPersistenceService summaryPersistenceService;
+
+    @Autowired
+    private SummaryRequestCoalescer summaryRequestCoalescer;
+
+    @Autowired
+    private SummarizationRouter summarizationRouter;
+
+    @Autowired
+    private MappingService mappingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("summaryBatchExecutor")
+    private ThreadPoolTaskExecutor summaryBatchExecutor;
+
+    @Value("${summary.batch.insert-size:50}")
+    private int insertSize;
+
+    // Longest a finished summary waits for its insert batch to fill up
+    @Value("${summary.batch.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    // Runs on the request thread so bad input is still a plain 400 rather than a broken stream
+    public List<BatchSummaryTask> plan(UUID userId, BatchSummaryRequest request) {
+        Set<UUID> requestedIds = new LinkedHashSet<>();
+        for (BatchSummaryRequest.Item item : request.getItems()) {
+            requestedIds.add(item.getDocumentId());
+        }
+        Set<UUID> ownedIds = new HashSet<>(documentRepository.findIdsByUserIdAndIdIn(userId, requestedIds));
+
+        List<BatchSummaryTask> tasks = new ArrayList<>(request.getItems().size());
+        for (BatchSummaryRequest.Item item : request.getItems()) {
+            String provider = ownedIds.contains(item.getDocumentId())
+                ? summarizationRouter.route(item.getProvider(), userId)
+                : null;
+            tasks.add(new BatchSummaryTask(item.getDocumentId(), item.getSummaryRatio(), provider));
+        }
+        return tasks;
+    }
+
+    public void run(List<BatchSummaryTask> tasks, OutputStream out) throws IOException {
+        BatchRun batch = new BatchRun();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (BatchSummaryTask task : tasks) {
+            if (!task.isOwned()) {
+                // Same answer as for a document that doesn't exist
+                write(out, failed(task, "not_found", "Document not found"));
+                continue;
+            }
+            try {
+                futures.add(summaryBatchExecutor.submit(() -> summarize(task, batch)));
+            } catch (TaskRejectedException e) {
+                write(out, failed(task, "rejected", "Summarization queue is full, please retry later"));
+            }
+        }
+
+        List<Completed> pending = new ArrayList<>();
+        try {
+            int remaining = futures.size();
+            while (remaining > 0) {
+                Completed completed = pending.isEmpty()
+                    ? batch.results.take()
+                    : batch.results.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (completed == null) {
+                    write(out, store(pending));
+                    continue;
+                }
+                remaining--;
+
+                if (completed.summary == null) {
+                    write(out, completed.result);
+                } else {
+                    pending.add(completed);
+                    if (pending.size() >= insertSize) {
+                        write(out, store(pending));
+                    }
+                }
+            }
+            write(out, store(pending));
+        } catch (InterruptedException e) {
+            abandon(batch, futures, pending);
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away
+            abandon(batch, futures, pending);
+            throw e;
+        }
+    }
+
+    // Work that hasn't started is cancelled and never touches its document. Summaries already
+    // handed over are stored here; tasks still running store their own when they finish, so no
+    // document is left 'processing'.
+    private void abandon(BatchRun batch, List<Future<?>> futures, List<Completed> pending) {
+        batch.abandon(pending);
+        futures.forEach(future -> future.cancel(false));
+        store(pending);
+    }
+
+    private void summarize(BatchSummaryTask task, BatchRun batch) {
+        if (batch.isAbandoned()) {
+            return;
+        }
+        Completed completed;
+        SummaryRequestCoalescer.Claim claim = null;
+        try {
+            // Shares the key of single summarize calls: a request already in flight for the same
+            // document, ratio and provider is answered with its summary instead of a second one
+            claim = summaryRequestCoalescer.claim(task.getDocumentId(), task.getSummaryRatio(), task.getProvider());
+            if (claim.getStored() != null) {
+                completed = new Completed(task, null, null, completed(task, claim.getStored()));
+            } else {
+                Summary summary = summaryService.generateUnsavedSummary(
+                    task.getDocumentId(), task.getSummaryRatio(), task.getProvider());
+                completed = new Completed(task, summary, claim, null);
+            }
+        } catch (RuntimeException e) {
+            // generateUnsavedSummary (or the request we joined) has already marked the document failed
+            log.warn("Batch summary for document {} failed: {}", task.getDocumentId(), e.getMessage());
+            if (claim != null) {
+                claim.fail(e);
+            }
+            completed = new Completed(task, null, null, failed(task, "failed", e.getMessage()));
+        }
+        if (!batch.offer(completed) && completed.summary != null) {
+            storeAlone(completed);
+        }
+    }
+
+    // For a summary that finished after its batch was abandoned
+    private void storeAlone(Completed completed) {
+        UUID documentId = completed.task.getDocumentId();
+        try {
+            completed.claim.complete(summaryPersistenceService.saveCompletedSummary(documentId, completed.summary));
+        } catch (RuntimeException e) {
+            log.warn("Failed to store summary for document {} of an abandoned batch: {}", documentId, e.getMessage());
+            completed.claim.fail(e);
+            summaryPersistenceService.markFailed(documentId);
+        }
+    }
+
+    // Inserts the pending summaries and empties the list; returns the lines to stream for them
+    private List<BatchSummaryResult> store(List<Completed> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> documentIds = new ArrayList<>(pending.size());
+        List<Summary> summaries = new ArrayList<>(pending.size());
+        for (Completed completed : pending) {
+            documentIds.add(completed.task.getDocumentId());
+            summaries.add(completed.summary);
+        }
+
+        List<BatchSummaryResult> results = new ArrayList<>(pending.size());
+        try {
+            List<Summary> saved = summaryPersistenceService.saveCompletedSummaries(documentIds, summaries);
+            for (int i = 0; i < saved.size(); i++) {
+                pending.get(i).claim.complete(saved.get(i));
+                results.add(completed(pending.get(i).task, saved.get(i)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to store {} batch summaries", summaries.size(), e);
+            // Release anyone waiting on these keys before touching the database again
+            for (Completed completed : pending) {
+                completed.claim.fail(e);
+            }
+            for (Completed completed : pending) {
+                summaryPersistenceService.markFailed(completed.task.getDocumentId());
+                results.add(failed(completed.task, "failed", "Failed to store summary"));
+            }
+        }
+        pending.clear();
+        return results;
+    }
+
+    private BatchSummaryResult completed(BatchSummaryTask task, Summary summary) {
+        BatchSummaryResult result = new BatchSummaryResult(task.getDocumentId(), task.getSummaryRatio(), "completed");
+        result.setSummary(mappingService.toSummaryResponse(summary));
+        return result;
+    }
+
+    private BatchSummaryResult failed(BatchSummaryTask task, String status, String error) {
+        BatchSummaryResult result = new BatchSummaryResult(task.getDocumentId(), task.getSummaryRatio(), status);
+        result.setError(error);
+        return result;
+    }
+
+    private void write(OutputStream out, List<BatchSummaryResult> results) throws IOException {
+        for (BatchSummaryResult result : results) {
+            write(out, result);
+        }
+    }
+
+    private void write(OutputStream out, BatchSummaryResult result) throws IOException {
+        out.write(objectMapper.writeValueAsString(result).getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        out.flush();
+    }
+
+    // Hands results from the workers to the streaming thread; once the batch is abandoned the
+    // workers keep their results and store them themselves
+    private static class BatchRun {
+        private final BlockingQueue<Completed> results = new LinkedBlockingQueue<>();
+        private boolean abandoned;
+
+        synchronized boolean offer(Completed completed) {
+            if (abandoned) {
+                return false;
+            }
+            results.add(completed);
+            return true;
+        }
+
+        synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        // Moves the summaries handed over so far into pending
+        synchronized void abandon(List<Completed> pending) {
+            abandoned = true;
+            for (Completed completed : results) {
+                if (completed.summary != null) {
+                    pending.add(completed);
+                }
+            }
+            results.clear();
+        }
+    }
+
+    private static class Completed {
+        private final BatchSummaryTask task;
+        // Set when this task generated the summary and still has to store it
+        private final Summary summary;
+        private final SummaryRequestCoalescer.Claim claim;
+        // Set otherwise: the line to stream as is
+        private final BatchSummaryResult result;
+
+        Completed(BatchSummaryTask task, Summary summary, SummaryRequestCoalescer.Claim claim, BatchSummaryResult result) {
+            this.task = task;
+            this.summary = summary;
+            this.claim = claim;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Summary;
+import com.summarizer.exception.JobQueueFullException;
+import com.summarizer.exception.ResourceNotFoundException;
+import com.summarizer.handler.WebSocketHandler;
+import com.summarizer.model.SummaryJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SummaryJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryJobService.class);
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private MappingService mappingService;
+
+    @Autowired
+    private SummarizationRouter summarizationRouter;
+
+    @Autowired
+    private WebSocketHandler webSocketHandler;
+
+    @Autowired
+    @Qualifier("summaryJobExecutor")
+    private ThreadPoolTaskExecutor summaryJobExecutor;
+
+    @Value("${summary.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<UUID, SummaryJob> jobs = new ConcurrentHashMap<>();
+
+    public SummaryJob submit(UUID documentId, UUID userId, BigDecimal summaryRatio, String requestedProvider) {
+        String provider = summarizationRouter.route(requestedProvider, userId);
+
+        // A repeated request while the same summary is still pending reuses that job
+        SummaryJob pending = findPendingJob(documentId, userId, summaryRatio, provider);
+        if (pending != null) {
+            return pending;
+        }
+
+        SummaryJob job = new SummaryJob(documentId, userId, summaryRatio, provider);
+        jobs.put(job.getId(), job);
+
+        // Before execute, so a worker that picks the job up at once can't send "summarizing" first
+        sendUpdate(job, "queued", "Summary job queued");
+        try {
+            summaryJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            sendUpdate(job, "failed", "Summarization queue is full");
+            throw new JobQueueFullException("Summarization queue is full, please retry later", e);
+        }
+
+        return job;
+    }
+
+    public SummaryJob getUserJob(UUID jobId, UUID userId) {
+        SummaryJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Job", "id", jobId);
+        }
+        return job;
+    }
+
+    private void run(SummaryJob job) {
+        job.setStatus("running");
+        job.setStartedAt(LocalDateTime.now());
+        job.setProgress(10);
+        sendUpdate(job, "summarizing", "Generating summary");
+
+        try {
+            Summary summary = summaryService.createSummary(job.getDocumentId(), job.getSummaryRatio(),
+                    job.getProvider());
+            job.setSummary(mappingService.toSummaryResponse(summary));
+            job.setProgress(100);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus("completed");
+            sendUpdate(job, "completed", "Summary ready");
+        } catch (Exception e) {
+            log.error("Summary job {} for document {} failed", job.getId(), job.getDocumentId(), e);
+            job.setError(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus("failed");
+            sendUpdate(job, "failed", "Summary generation failed");
+        }
+    }
+
+    private void sendUpdate(SummaryJob job, String step, String message) {
+        String documentId = job.getDocumentId().toString();
+        webSocketHandler.sendProcessingUpdate(documentId, new WebSocketHandler.ProcessingUpdate(
+                "summary_job", documentId, step, job.getProgress(), 0, message));
+    }
+
+    private SummaryJob findPendingJob(UUID documentId, UUID userId, BigDecimal summaryRatio, String provider) {
+        for (SummaryJob job : jobs.values()) {
+            if (!job.isFinished()
+                    && job.getDocumentId().equals(documentId)
+                    && job.getUserId().equals(userId)
+                    && job.getSummaryRatio().compareTo(summaryRatio) == 0
+                    && job.getProvider().equals(provider)) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    // Finished jobs stay pollable for the retention period, also when no new jobs are submitted
+    @Scheduled(fixedDelayString = "${summary.jobs.purge-interval-ms:300000}",
+               initialDelayString = "${summary.jobs.purge-interval-ms:300000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished()
+                && job.getCompletedAt() != null
+                && job.getCompletedAt().isBefore(cutoff));
+    }
+}
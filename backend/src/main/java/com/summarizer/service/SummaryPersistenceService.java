@@ -0,0 +1,101 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Document;
+import com.summarizer.entity.Summary;
+import com.summarizer.exception.ResourceNotFoundException;
+import com.summarizer.repository.DocumentContentRepository;
+import com.summarizer.repository.DocumentRepository;
+import com.summarizer.repository.SummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Short transactional steps of summary creation, kept apart from the AI call
+@Service
+@Transactional
+public class SummaryPersistenceService {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Autowired
+    private SearchEngine searchEngine;
+
+    public String markProcessing(UUID documentId) {
+        Document document = findDocument(documentId);
+
+        String contentText = documentContentRepository.findContentTextByDocumentId(documentId).orElse(null);
+        if (contentText == null || contentText.trim().isEmpty()) {
+            throw new IllegalStateException("Document has no content to summarize");
+        }
+
+        document.setStatus("processing");
+        documentRepository.save(document);
+
+        return contentText;
+    }
+
+    public Summary saveCompletedSummary(UUID documentId, Summary summary) {
+        Document document = findDocument(documentId);
+
+        summary.setDocument(document);
+        Summary savedSummary = summaryRepository.save(summary);
+
+        document.setStatus("completed");
+        document.setProcessedAt(LocalDateTime.now());
+        documentRepository.save(document);
+
+        searchEngine.summarySaved(document.getUserId(), savedSummary.getId(), savedSummary.getSummaryText());
+        return savedSummary;
+    }
+
+    // Batch variant of saveCompletedSummary: documentIds.get(i) is the document of summaries.get(i).
+    // One lookup for the documents and one batched insert for the summaries.
+    public List<Summary> saveCompletedSummaries(List<UUID> documentIds, List<Summary> summaries) {
+        Map<UUID, Document> documents = new HashMap<>();
+        for (Document document : documentRepository.findAllById(documentIds)) {
+            documents.put(document.getId(), document);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < summaries.size(); i++) {
+            Document document = documents.get(documentIds.get(i));
+            if (document == null) {
+                throw new ResourceNotFoundException("Document", "id", documentIds.get(i));
+            }
+            summaries.get(i).setDocument(document);
+            document.setStatus("completed");
+            document.setProcessedAt(now);
+        }
+
+        List<Summary> saved = summaryRepository.saveAll(summaries);
+        documentRepository.saveAll(documents.values());
+        for (Summary summary : saved) {
+            searchEngine.summarySaved(summary.getDocument().getUserId(), summary.getId(), summary.getSummaryText());
+        }
+        return saved;
+    }
+
+    public void markFailed(UUID documentId) {
+        Document document = findDocument(documentId);
+        document.setStatus("failed");
+        documentRepository.save(document);
+    }
+
+    private Document findDocument(UUID documentId) {
+        return documentRepository.findById(documentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
+    }
+}
@@ -0,0 +1,280 @@
+package com.summarizer.service;
+
+import com.summarizer.entity.Summary;
+import com.summarizer.exception.AIServiceException;
+import com.summarizer.repository.SummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Single-flight for summary creation: concurrent callers for the same (document, ratio, provider)
+// share one result, whether they store it straight away (execute) or later in a batch (claim)
+@Service
+public class SummaryRequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryRequestCoalescer.class);
+
+    private static final String INFLIGHT_PREFIX = "summary-inflight:";
+    private static final String PENDING = "pending";
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${summary.coalescing.distributed:false}")
+    private boolean distributed;
+
+    @Value("${summary.coalescing.lock-ttl-seconds:300}")
+    private long lockTtlSeconds;
+
+    @Value("${summary.coalescing.result-ttl-seconds:10}")
+    private long resultTtlSeconds;
+
+    @Value("${summary.coalescing.poll-interval-ms:250}")
+    private long pollIntervalMs;
+
+    private final Map<String, CompletableFuture<Summary>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter localCoalesced;
+    private Counter redisCoalesced;
+
+    @PostConstruct
+    void init() {
+        localCoalesced = Counter.builder("summary.coalesced").tag("scope", "local").register(meterRegistry);
+        redisCoalesced = Counter.builder("summary.coalesced").tag("scope", "redis").register(meterRegistry);
+    }
+
+    public Summary execute(UUID documentId, BigDecimal summaryRatio, String providerId, Supplier<Summary> work) {
+        String key = key(documentId, summaryRatio, providerId);
+
+        CompletableFuture<Summary> future = new CompletableFuture<>();
+        CompletableFuture<Summary> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            localCoalesced.increment();
+            return await(existing, key);
+        }
+
+        try {
+            Summary summary = distributed ? executeAcrossReplicas(key, work) : work.get();
+            future.complete(summary);
+            return summary;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    // For callers that generate now and store later: joins a request already in flight for the key,
+    // or claims the key until the caller completes (or fails) the claim with its stored summary
+    public Claim claim(UUID documentId, BigDecimal summaryRatio, String providerId) {
+        String key = key(documentId, summaryRatio, providerId);
+
+        CompletableFuture<Summary> future = new CompletableFuture<>();
+        CompletableFuture<Summary> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            localCoalesced.increment();
+            return new Claim(await(existing, key));
+        }
+        if (!distributed) {
+            return new Claim(key, null, future);
+        }
+
+        String redisKey = INFLIGHT_PREFIX + key;
+        try {
+            Summary stored = acquireOrAwait(redisKey);
+            if (stored == null) {
+                return new Claim(key, redisKey, future);
+            }
+            future.complete(stored);
+            inFlight.remove(key, future);
+            return new Claim(stored);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            inFlight.remove(key, future);
+            throw e;
+        }
+    }
+
+    private Summary executeAcrossReplicas(String key, Supplier<Summary> work) {
+        String redisKey = INFLIGHT_PREFIX + key;
+        Summary stored = acquireOrAwait(redisKey);
+        return stored != null ? stored : runAsLeader(redisKey, work);
+    }
+
+    // Null once this replica holds the in-flight marker; otherwise the summary another replica stored
+    private Summary acquireOrAwait(String redisKey) {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(lockTtlSeconds);
+
+        while (true) {
+            if (tryAcquire(redisKey)) {
+                return null;
+            }
+
+            Object value = readMarker(redisKey);
+            if (value instanceof String marker && !PENDING.equals(marker)) {
+                Summary summary = summaryRepository.findById(UUID.fromString(marker)).orElse(null);
+                if (summary != null) {
+                    redisCoalesced.increment();
+                    return summary;
+                }
+            }
+
+            // The marker vanishes if the leader failed; loop round and try to take over
+            if (System.currentTimeMillis() > deadline) {
+                throw new AIServiceException("Timed out waiting for " + redisKey);
+            }
+            sleep(pollIntervalMs);
+        }
+    }
+
+    private Summary runAsLeader(String redisKey, Supplier<Summary> work) {
+        Summary summary;
+        try {
+            summary = work.get();
+        } catch (RuntimeException e) {
+            releaseMarker(redisKey);
+            throw e;
+        }
+
+        publishResult(redisKey, summary);
+        return summary;
+    }
+
+    // Leave the result behind briefly so waiting replicas can pick it up
+    private void publishResult(String redisKey, Summary summary) {
+        try {
+            cacheService.setCache(redisKey, summary.getId().toString(), resultTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to publish in-flight summary result: {}", e.getMessage());
+        }
+    }
+
+    private boolean tryAcquire(String redisKey) {
+        try {
+            return cacheService.setCacheIfAbsent(redisKey, PENDING, lockTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Without Redis we still coalesce within this replica
+            log.warn("Redis unavailable for summary coalescing: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private Object readMarker(String redisKey) {
+        try {
+            return cacheService.getCache(redisKey);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void releaseMarker(String redisKey) {
+        try {
+            cacheService.deleteCache(redisKey);
+        } catch (Exception e) {
+            log.warn("Failed to release summary coalescing lock: {}", e.getMessage());
+        }
+    }
+
+    // Bounded like the wait on another replica's marker, so a leader that hangs can't hold its
+    // followers' threads forever; a follower gives up with the error that wait would give
+    private Summary await(CompletableFuture<Summary> future, String key) {
+        try {
+            return future.get(lockTtlSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new AIServiceException("Timed out waiting for " + INFLIGHT_PREFIX + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while waiting for an in-flight summary", e);
+        }
+    }
+
+    private static String key(UUID documentId, BigDecimal summaryRatio, String providerId) {
+        return documentId + ":" + summaryRatio.stripTrailingZeros().toPlainString() + ":" + providerId;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while waiting for an in-flight summary", e);
+        }
+    }
+
+    // Either a summary another caller already stored (getStored), or the key held for this caller,
+    // who must end it with complete or fail so that callers waiting on the key are released
+    public class Claim {
+        private final Summary stored;
+        private final String key;
+        private final String redisKey;
+        private final CompletableFuture<Summary> future;
+
+        private Claim(Summary stored) {
+            this.stored = stored;
+            this.key = null;
+            this.redisKey = null;
+            this.future = null;
+        }
+
+        private Claim(String key, String redisKey, CompletableFuture<Summary> future) {
+            this.stored = null;
+            this.key = key;
+            this.redisKey = redisKey;
+            this.future = future;
+        }
+
+        public Summary getStored() {
+            return stored;
+        }
+
+        public void complete(Summary summary) {
+            if (future == null) {
+                return;
+            }
+            if (redisKey != null) {
+                publishResult(redisKey, summary);
+            }
+            future.complete(summary);
+            inFlight.remove(key, future);
+        }
+
+        public void fail(RuntimeException e) {
+            if (future == null) {
+                return;
+            }
+            if (redisKey != null) {
+                releaseMarker(redisKey);
+            }
+            future.completeExceptionally(e);
+            inFlight.remove(key, future);
+        }
+    }
+}
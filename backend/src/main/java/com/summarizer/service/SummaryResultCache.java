@@ -0,0 +1,113 @@
+package com.summarizer.service;
+
+import com.summarizer.model.CachedSummary;
+import com.summarizer.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Summaries keyed by content hash, ratio and model: a small in-process LRU in front of Redis
+@Service
+public class SummaryResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryResultCache.class);
+
+    private static final String SUMMARY_RESULT_PREFIX = "summary-result:";
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${summary.cache.local-max-entries:1000}")
+    private int localMaxEntries;
+
+    @Value("${summary.cache.ttl-hours:168}")
+    private long ttlHours;
+
+    private Map<String, CachedSummary> localCache;
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        localCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSummary> eldest) {
+                return size() > localMaxEntries;
+            }
+        });
+        localHits = Counter.builder("summary.cache.hits").tag("tier", "local").register(meterRegistry);
+        redisHits = Counter.builder("summary.cache.hits").tag("tier", "redis").register(meterRegistry);
+        misses = Counter.builder("summary.cache.misses").register(meterRegistry);
+    }
+
+    public String keyFor(String contentText, BigDecimal summaryRatio, String modelName) {
+        String ratio = summaryRatio.stripTrailingZeros().toPlainString();
+        return Hashing.sha256Hex(normalize(contentText)) + ":" + ratio + ":" + modelName;
+    }
+
+    public CachedSummary get(String key) {
+        CachedSummary cached = localCache.get(key);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        try {
+            Object value = cacheService.getCache(SUMMARY_RESULT_PREFIX + key);
+            if (value instanceof CachedSummary fromRedis) {
+                localCache.put(key, fromRedis);
+                redisHits.increment();
+                return fromRedis;
+            }
+        } catch (Exception e) {
+            // Redis being unavailable only costs us the shared tier
+            log.warn("Summary cache lookup failed: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, CachedSummary summary) {
+        localCache.put(key, summary);
+        try {
+            cacheService.setCache(SUMMARY_RESULT_PREFIX + key, summary, ttlHours, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("Summary cache write failed: {}", e.getMessage());
+        }
+    }
+
+    // Collapse whitespace runs so re-extractions of the same file hash identically
+    private String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
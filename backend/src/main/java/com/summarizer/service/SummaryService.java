@@ -1,13 +1,19 @@
 package com.summarizer.service;
 
-import com.summarizer.entity.Document;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.summarizer.dto.CursorPage;
 import com.summarizer.entity.Summary;
 import com.summarizer.exception.ResourceNotFoundException;
-import com.summarizer.repository.DocumentRepository;
+import com.summarizer.model.CachedSummary;
+import com.summarizer.model.ChunkedSummaryResult;
+import com.summarizer.model.SummarySearchView;
+import com.summarizer.model.SummaryView;
 import com.summarizer.repository.SummaryRepository;
+import com.summarizer.util.Cursors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -15,7 +21,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 @Service
 @Transactional
@@ -25,54 +33,105 @@ public class SummaryService {
     private SummaryRepository summaryRepository;
 
     @Autowired
-    private DocumentRepository documentRepository;
+    private ChunkedSummarizer chunkedSummarizer;
 
     @Autowired
-    private AIService aiService;
+    private SummaryPersistenceService summaryPersistenceService;
+
+    @Autowired
+    private SummaryResultCache summaryResultCache;
+
+    @Autowired
+    private SummaryRequestCoalescer summaryRequestCoalescer;
+
+    @Autowired
+    private SummarizationRouter summarizationRouter;
+
+    @Autowired
+    private SearchEngine searchEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Value("${ai.service.url}")
     private String aiServiceUrl;
 
-    public Summary createSummary(UUID documentId, BigDecimal summaryRatio) {
-        Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
+    // Runs outside any transaction so no connection is held while the AI service works;
+    // the database work happens in two short transactions around the call.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Summary createSummary(UUID documentId, BigDecimal summaryRatio, String providerId) {
+        SummarizationProvider provider = summarizationRouter.get(providerId);
+
+        // Double-clicks and retries for the same document, ratio and provider share one AI call and one row
+        return summaryRequestCoalescer.execute(documentId, summaryRatio, providerId,
+            () -> generateAndSaveSummary(documentId, summaryRatio, provider));
+    }
+
+    // For batch callers, which coalesce through SummaryRequestCoalescer.claim and persist many of
+    // these at once with saveCompletedSummaries
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Summary generateUnsavedSummary(UUID documentId, BigDecimal summaryRatio, String providerId) {
+        return generateSummary(documentId, summaryRatio, summarizationRouter.get(providerId));
+    }
 
-        if (document.getContentText() == null || document.getContentText().trim().isEmpty()) {
-            throw new IllegalStateException("Document has no content to summarize");
+    private Summary generateAndSaveSummary(UUID documentId, BigDecimal summaryRatio,
+                                           SummarizationProvider provider) {
+        Summary summary = generateSummary(documentId, summaryRatio, provider);
+        try {
+            // Persist the summary and mark the document completed in one short transaction
+            return summaryPersistenceService.saveCompletedSummary(documentId, summary);
+        } catch (Exception e) {
+            summaryPersistenceService.markFailed(documentId);
+            throw new RuntimeException("Failed to generate summary: " + e.getMessage(), e);
         }
+    }
 
-        // Update document status to processing
-        document.setStatus("processing");
-        documentRepository.save(document);
+    private Summary generateSummary(UUID documentId, BigDecimal summaryRatio, SummarizationProvider provider) {
+        // Validate and mark the document as processing, then commit
+        String contentText = summaryPersistenceService.markProcessing(documentId);
 
         try {
-            // Call AI service for summarization
             long startTime = System.currentTimeMillis();
-            String summaryText = aiService.generateSummary(document.getContentText(), summaryRatio);
+            String model = provider.getModelName();
+
+            // Identical content at the same ratio and model is only summarized once
+            String cacheKey = summaryResultCache.keyFor(contentText, summaryRatio, model);
+            CachedSummary cached = summaryResultCache.get(cacheKey);
+            if (cached != null) {
+                Summary summary = new Summary();
+                summary.setSummaryText(cached.getSummaryText());
+                summary.setSummaryRatio(summaryRatio);
+                summary.setModelUsed(cached.getModelUsed());
+                summary.setProcessingTimeMs((int) (System.currentTimeMillis() - startTime));
+                summary.setConfidenceScore(cached.getConfidenceScore());
+                return summary;
+            }
+
+            // Call the provider for summarization, chunked when the document is long
+            ChunkedSummaryResult result = chunkedSummarizer.summarize(documentId, contentText, summaryRatio, provider);
             long processingTime = System.currentTimeMillis() - startTime;
+            boolean fallback = result.isFallback();
 
             // Create summary entity
             Summary summary = new Summary();
-            summary.setDocument(document);
-            summary.setSummaryText(summaryText);
+            summary.setSummaryText(result.getSummaryText());
             summary.setSummaryRatio(summaryRatio);
-            summary.setModelUsed("facebook/bart-large-cnn"); // Default model
+            summary.setModelUsed(result.getModelUsed());
             summary.setProcessingTimeMs((int) processingTime);
             summary.setConfidenceScore(new BigDecimal("0.85")); // Mock confidence score
+            summary.setChunkTimings(objectMapper.writeValueAsString(result.getChunkTimingsMs()));
 
-            Summary savedSummary = summaryRepository.save(summary);
+            // Fallback summaries are not cached so the real model gets another chance
+            if (!fallback) {
+                summaryResultCache.put(cacheKey, new CachedSummary(
+                    summary.getSummaryText(), summary.getModelUsed(), summary.getConfidenceScore()));
+            }
 
-            // Update document status to completed
-            document.setStatus("completed");
-            document.setProcessedAt(LocalDateTime.now());
-            documentRepository.save(document);
-
-            return savedSummary;
+            return summary;
 
         } catch (Exception e) {
             // Update document status to failed
-            document.setStatus("failed");
-            documentRepository.save(document);
+            summaryPersistenceService.markFailed(documentId);
             throw new RuntimeException("Failed to generate summary: " + e.getMessage(), e);
         }
     }
@@ -91,7 +150,9 @@ public class SummaryService {
             .orElseThrow(() -> new ResourceNotFoundException("Summary", "id", summaryId));
 
         summary.setSummaryText(newSummaryText);
-        return summaryRepository.save(summary);
+        Summary saved = summaryRepository.save(summary);
+        searchEngine.summarySaved(saved.getDocument().getUserId(), saved.getId(), saved.getSummaryText());
+        return saved;
     }
 
     public void deleteSummary(UUID summaryId) {
@@ -101,8 +162,33 @@ public class SummaryService {
         summaryRepository.deleteById(summaryId);
     }
 
-    public Page<Summary> getUserSummaries(UUID userId, Pageable pageable) {
-        return summaryRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+    public List<SummaryView> getDocumentSummaryViews(UUID documentId) {
+        return summaryRepository.findViewsByDocumentId(documentId);
+    }
+
+    public Page<SummaryView> getUserSummaries(UUID userId, Pageable pageable) {
+        return summaryRepository.findViewsByUserId(userId, pageable);
+    }
+
+    // Keyset listing on (createdAt, id); the cursor is the last row of the previous page
+    public CursorPage<SummaryView> getUserSummariesAfter(UUID userId, String cursor, int size, boolean ascending) {
+        LocalDateTime afterTimestamp = ascending ? Cursors.MIN_TIMESTAMP : Cursors.MAX_TIMESTAMP;
+        UUID afterId = ascending ? Cursors.MIN_ID : Cursors.MAX_ID;
+        if (cursor != null) {
+            String[] values = Cursors.decode(cursor, 2);
+            afterTimestamp = Cursors.parseTimestamp(values[0]);
+            afterId = Cursors.parseUuid(values[1]);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<SummaryView> slice = ascending
+            ? summaryRepository.findViewSliceByUserIdAscending(userId, afterTimestamp, afterId, pageable)
+            : summaryRepository.findViewSliceByUserIdDescending(userId, afterTimestamp, afterId, pageable);
+        if (!slice.hasNext()) {
+            return new CursorPage<>(slice.getContent(), null);
+        }
+        SummaryView last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return new CursorPage<>(slice.getContent(), Cursors.encode(last.getCreatedAt(), last.getId()));
     }
 
     public Summary getUserSummary(UUID summaryId, UUID userId) {
@@ -117,12 +203,32 @@ public class SummaryService {
         return summary;
     }
 
-    public Page<Summary> searchUserSummaries(UUID userId, String query, Pageable pageable) {
-        return summaryRepository.findByUserIdAndSearchTerm(userId, query, pageable);
+    public Page<SummaryView> searchUserSummaries(UUID userId, String query, Pageable pageable) {
+        return searchEngine.searchSummaries(userId, query, pageable);
+    }
+
+    // Best matches first; the cursor holds the (rank, id) of the last row already returned
+    public CursorPage<SummarySearchView> searchUserSummariesRanked(UUID userId, String query, String cursor, int size) {
+        BigDecimal afterRank = Cursors.MAX_RANK;
+        UUID afterId = Cursors.MIN_ID;
+        if (cursor != null) {
+            String[] values = Cursors.decode(cursor, 2);
+            afterRank = Cursors.parseDecimal(values[0]);
+            afterId = Cursors.parseUuid(values[1]);
+        }
+
+        List<SummarySearchView> rows = summaryRepository.searchRanked(userId, query, afterRank, afterId, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<SummarySearchView> page = rows.subList(0, size);
+        SummarySearchView last = page.get(size - 1);
+        return new CursorPage<>(page, Cursors.encode(last.getRank().toPlainString(), last.getId()));
     }
 
     public void deleteUserSummary(UUID summaryId, UUID userId) {
         Summary summary = getUserSummary(summaryId, userId);
         summaryRepository.deleteById(summaryId);
+        searchEngine.summaryDeleted(userId, summaryId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.summarizer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Splits text on paragraph, then sentence, boundaries into chunks that fit a token budget
+@Component
+public class TextChunker {
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern SENTENCE_BREAK = Pattern.compile("(?<=[.!?])\\s+");
+
+    // Rough token estimate used by the summarization models: ~4 characters per token
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Value("${summary.chunking.max-chunk-tokens:256}")
+    private int maxChunkTokens;
+
+    @Value("${summary.chunking.min-chunk-tokens:50}")
+    private int minChunkTokens;
+
+    public int estimateTokens(CharSequence text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public boolean fitsInOneChunk(CharSequence text) {
+        return estimateTokens(text) <= maxChunkTokens;
+    }
+
+    public List<String> split(String text) {
+        int maxChars = maxChunkTokens * CHARS_PER_TOKEN;
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String paragraph : PARAGRAPH_BREAK.split(text.trim())) {
+            String trimmed = paragraph.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.length() <= maxChars) {
+                append(chunks, current, trimmed, "\n\n", maxChars);
+                continue;
+            }
+            // Paragraph alone is over budget: pack its sentences instead
+            for (String sentence : SENTENCE_BREAK.split(trimmed)) {
+                if (sentence.length() <= maxChars) {
+                    append(chunks, current, sentence, " ", maxChars);
+                } else {
+                    for (String piece : splitOnWhitespace(sentence, maxChars)) {
+                        append(chunks, current, piece, " ", maxChars);
+                    }
+                }
+            }
+        }
+        flush(chunks, current);
+
+        // A tiny tail chunk summarizes badly on its own; fold it into the previous one
+        int size = chunks.size();
+        if (size > 1 && estimateTokens(chunks.get(size - 1)) < minChunkTokens) {
+            String tail = chunks.remove(size - 1);
+            chunks.set(size - 2, chunks.get(size - 2) + "\n\n" + tail);
+        }
+        return chunks;
+    }
+
+    private void append(List<String> chunks, StringBuilder current, String piece, String separator, int maxChars) {
+        if (current.length() > 0 && current.length() + separator.length() + piece.length() > maxChars) {
+            flush(chunks, current);
+        }
+        if (current.length() > 0) {
+            current.append(separator);
+        }
+        current.append(piece);
+    }
+
+    private void flush(List<String> chunks, StringBuilder current) {
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private List<String> splitOnWhitespace(String text, int maxChars) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(start + maxChars, text.length());
+            if (end < text.length()) {
+                int space = text.lastIndexOf(' ', end);
+                if (space > start) {
+                    end = space;
+                }
+            }
+            pieces.add(text.substring(start, end).trim());
+            start = end;
+        }
+        return pieces;
+    }
+}
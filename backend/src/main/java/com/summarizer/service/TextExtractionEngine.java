@@ -0,0 +1,208 @@
+package com.summarizer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+// One shared, thread-safe Tika parser for all uploads instead of a new Tika per file
+@Component
+public class TextExtractionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TextExtractionEngine.class);
+
+    private static final Map<String, String> MEDIA_TYPES = Map.of(
+        ".pdf", "application/pdf",
+        ".txt", "text/plain",
+        ".docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+        ".doc", "application/msword"
+    );
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${file.extraction.tika-config:}")
+    private String tikaConfigPath;
+
+    @Value("${file.extraction.max-chars:5000000}")
+    private int maxChars;
+
+    @Value("${file.extraction.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${file.extraction.fork.enabled:false}")
+    private boolean forkEnabled;
+
+    @Value("${file.extraction.fork.java-command:java -Xmx512m}")
+    private String forkJavaCommand;
+
+    @Value("${file.extraction.fork.pool-size:4}")
+    private int forkPoolSize;
+
+    @Value("${file.extraction.fork.max-files-per-worker:100}")
+    private int forkMaxFilesPerWorker;
+
+    @Value("${file.extraction.fork.in-process-max-bytes:1048576}")
+    private long inProcessMaxBytes;
+
+    private AutoDetectParser parser;
+    private ForkParser forkParser;
+
+    // Media type for an allowed extension, or null
+    public static String mediaType(String extension) {
+        return MEDIA_TYPES.get(extension);
+    }
+
+    @PostConstruct
+    void init() throws TikaException, IOException, SAXException {
+        TikaConfig tikaConfig = tikaConfigPath.isBlank()
+            ? TikaConfig.getDefaultConfig()
+            : new TikaConfig(Path.of(tikaConfigPath));
+        parser = new AutoDetectParser(tikaConfig);
+
+        // Parse a tiny sample of each allowed format up front, so the class loading and parser
+        // setup (PDFBox fonts, POI, detection) happen here rather than on the first upload
+        Map<MediaType, Parser> parsers = parser.getParsers(new ParseContext());
+        for (Map.Entry<String, String> entry : MEDIA_TYPES.entrySet()) {
+            if (parsers.get(MediaType.parse(entry.getValue())) == null) {
+                log.warn("No Tika parser registered for {}", entry.getValue());
+            } else {
+                warmUp(entry.getKey(), entry.getValue());
+                timer(entry.getKey(), "in-process");
+            }
+        }
+
+        // Forked workers keep a pathological file's CPU and heap out of the web JVM. Each worker
+        // is a separate JVM with its own heap cap and is replaced after a number of documents.
+        if (forkEnabled) {
+            forkParser = new ForkParser(TextExtractionEngine.class.getClassLoader(), parser);
+            forkParser.setJavaCommand(Arrays.asList(forkJavaCommand.trim().split("\\s+")));
+            forkParser.setPoolSize(forkPoolSize);
+            forkParser.setMaxFilesProcessedPerServer(forkMaxFilesPerWorker);
+            forkParser.setServerParseTimeoutMillis(timeoutMs);
+            log.info("Forked text extraction enabled with {} workers ({})", forkPoolSize, forkJavaCommand);
+        }
+    }
+
+    private void warmUp(String extension, String mediaType) {
+        String resource = "/extraction-samples/sample" + extension;
+        long started = System.currentTimeMillis();
+        try (InputStream sample = TextExtractionEngine.class.getResourceAsStream(resource)) {
+            if (sample == null) {
+                log.warn("Extraction sample {} is missing", resource);
+                return;
+            }
+            Metadata metadata = new Metadata();
+            metadata.set(Metadata.CONTENT_TYPE, mediaType);
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, "sample" + extension);
+            parser.parse(TikaInputStream.get(sample), new BodyContentHandler(maxChars), metadata, new ParseContext());
+            log.debug("Warmed up {} extraction in {} ms", extension, System.currentTimeMillis() - started);
+        } catch (IOException | SAXException | TikaException e) {
+            // Only the first upload of this format gets slower; not a reason to fail startup
+            log.warn("Warm-up extraction of {} sample failed", extension, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (forkParser != null) {
+            forkParser.close();
+        }
+    }
+
+    public String extract(InputStream stream, String extension, long size)
+            throws IOException, TikaException, SAXException {
+        Metadata metadata = new Metadata();
+        String mediaType = MEDIA_TYPES.get(extension);
+        if (mediaType != null) {
+            metadata.set(Metadata.CONTENT_TYPE, mediaType);
+        }
+        metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, "upload" + extension);
+
+        BodyContentHandler body = new BodyContentHandler(maxChars);
+        ContentHandler handler = new DeadlineContentHandler(body, System.currentTimeMillis() + timeoutMs);
+
+        // Small plain-text files aren't worth a round trip to a worker
+        boolean forked = forkParser != null && !(".txt".equals(extension) && size <= inProcessMaxBytes);
+        Parser selected = forked ? forkParser : parser;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (TikaInputStream tikaStream = TikaInputStream.get(stream)) {
+            selected.parse(tikaStream, handler, metadata, new ParseContext());
+        } catch (SAXException | TikaException e) {
+            // Hitting the write limit just truncates the text; anything else is a real failure
+            if (!WriteLimitReachedException.isWriteLimitReached(e)) {
+                throw e;
+            }
+            log.info("Extraction of {} file truncated at {} characters", extension, maxChars);
+        } finally {
+            sample.stop(timer(extension, forked ? "forked" : "in-process"));
+        }
+        return body.toString();
+    }
+
+    private Timer timer(String extension, String mode) {
+        String format = extension.startsWith(".") ? extension.substring(1) : extension;
+        return Timer.builder("document.extraction")
+            .tag("format", format)
+            .tag("mode", mode)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    // Tika has no in-process timeout, so abort from the SAX callbacks once the deadline passes
+    private static class DeadlineContentHandler extends ContentHandlerDecorator {
+
+        private final long deadline;
+
+        DeadlineContentHandler(ContentHandler handler, long deadline) {
+            super(handler);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            checkDeadline();
+            super.characters(ch, start, length);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, org.xml.sax.Attributes atts)
+                throws SAXException {
+            checkDeadline();
+            super.startElement(uri, localName, name, atts);
+        }
+
+        private void checkDeadline() throws SAXException {
+            if (System.currentTimeMillis() > deadline) {
+                throw new SAXException("Text extraction timed out");
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.summarizer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// In-JVM extractive summarizer: sentences are weighted TF-IDF vectors, cosine similarity gives a
+// sentence graph, PageRank over that graph picks the top sentences. Same ratio semantics as the
+// AI service fallback: the summary keeps ratio * sentence count sentences, in document order.
+@Component
+public class TextRankSummarizer implements SummarizationProvider {
+
+    public static final String MODEL_NAME = "local-textrank";
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "for", "from", "had",
+        "has", "have", "he", "her", "his", "i", "if", "in", "into", "is", "it", "its", "more", "no",
+        "not", "of", "on", "or", "our", "she", "so", "such", "that", "the", "their", "them", "then",
+        "there", "these", "they", "this", "to", "was", "we", "were", "which", "will", "with", "would",
+        "you", "your"
+    ));
+
+    private static final int BLOCK_SIZE = 256;
+    private static final double MIN_SIMILARITY = 0.05;
+
+    @Value("${summary.textrank.damping:0.85}")
+    private double damping;
+
+    @Value("${summary.textrank.max-iterations:50}")
+    private int maxIterations;
+
+    @Value("${summary.textrank.tolerance:0.0001}")
+    private double tolerance;
+
+    @Value("${summary.textrank.parallelism:0}")
+    private int parallelism;
+
+    @Value("${summary.textrank.parallel-threshold:2000}")
+    private int parallelThreshold;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String getId() {
+        return MODEL_NAME;
+    }
+
+    @Override
+    public String getModelName() {
+        return MODEL_NAME;
+    }
+
+    // Works on the whole document at once, however long
+    @Override
+    public boolean requiresChunking() {
+        return false;
+    }
+
+    @Override
+    public String summarize(String text, BigDecimal summaryRatio) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+
+        List<int[]> sentences = segment(text);
+        int count = sentences.size();
+        int target = Math.max(1, (int) (count * summaryRatio.doubleValue()));
+        if (target >= count) {
+            return join(text, sentences, null);
+        }
+
+        SentenceVectors vectors = vectorize(text, sentences);
+        int[][] neighbours = new int[count][];
+        float[][] weights = new float[count][];
+        forEachBlock(count, (from, to) -> buildRows(vectors, neighbours, weights, from, to));
+        double[] scores = rank(neighbours, weights);
+
+        // Highest scores win; ties go to the earlier sentence
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a]) : a - b);
+        boolean[] selected = new boolean[count];
+        for (int i = 0; i < target; i++) {
+            selected[order[i]] = true;
+        }
+        return join(text, sentences, selected);
+    }
+
+    // Sentence bounds as [start, end) offsets; a sentence ends at . ! or ? before whitespace, or at a blank line
+    private List<int[]> segment(String text) {
+        List<int[]> sentences = new ArrayList<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (start < 0) {
+                if (!Character.isWhitespace(c)) {
+                    start = i;
+                }
+                continue;
+            }
+            boolean terminator = (c == '.' || c == '!' || c == '?')
+                && (i + 1 == length || Character.isWhitespace(text.charAt(i + 1)));
+            boolean paragraphBreak = c == '\n' && i + 1 < length && text.charAt(i + 1) == '\n';
+            if (terminator) {
+                sentences.add(new int[]{start, i + 1});
+                start = -1;
+            } else if (paragraphBreak) {
+                sentences.add(new int[]{start, i});
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            sentences.add(new int[]{start, length});
+        }
+        return sentences;
+    }
+
+    private SentenceVectors vectorize(String text, List<int[]> sentences) {
+        int count = sentences.size();
+        Map<String, Integer> termIds = new HashMap<>();
+        int[][] terms = new int[count][];
+        int[][] frequencies = new int[count][];
+        int[] documentFrequency = new int[1024];
+
+        // Per-sentence term counts in scratch arrays indexed by term id, reset after each sentence
+        int[] counts = new int[1024];
+        int[] sentenceTerms = new int[256];
+        StringBuilder word = new StringBuilder();
+        for (int s = 0; s < count; s++) {
+            int distinct = 0;
+            int[] bounds = sentences.get(s);
+            for (int i = bounds[0]; i <= bounds[1]; i++) {
+                char c = i < bounds[1] ? text.charAt(i) : ' ';
+                if (Character.isLetterOrDigit(c)) {
+                    word.append(Character.toLowerCase(c));
+                    continue;
+                }
+                if (word.length() > 1) {
+                    String token = word.toString();
+                    if (!STOP_WORDS.contains(token)) {
+                        Integer id = termIds.get(token);
+                        if (id == null) {
+                            id = termIds.size();
+                            termIds.put(token, id);
+                            if (id == counts.length) {
+                                counts = Arrays.copyOf(counts, id * 2);
+                                documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+                            }
+                        }
+                        if (counts[id]++ == 0) {
+                            documentFrequency[id]++;
+                            if (distinct == sentenceTerms.length) {
+                                sentenceTerms = Arrays.copyOf(sentenceTerms, distinct * 2);
+                            }
+                            sentenceTerms[distinct++] = id;
+                        }
+                    }
+                }
+                word.setLength(0);
+            }
+            terms[s] = Arrays.copyOf(sentenceTerms, distinct);
+            frequencies[s] = new int[distinct];
+            for (int k = 0; k < distinct; k++) {
+                frequencies[s][k] = counts[sentenceTerms[k]];
+                counts[sentenceTerms[k]] = 0;
+            }
+        }
+
+        // L2-normalized TF-IDF weights, plus postings per term for the similarity pass
+        int termCount = termIds.size();
+        double[] idf = new double[termCount];
+        for (int t = 0; t < termCount; t++) {
+            idf[t] = Math.log((double) count / documentFrequency[t]) + 1.0;
+        }
+        float[][] values = new float[count][];
+        int[][] postingSentences = new int[termCount][];
+        float[][] postingWeights = new float[termCount][];
+        int[] fill = new int[termCount];
+        for (int t = 0; t < termCount; t++) {
+            postingSentences[t] = new int[documentFrequency[t]];
+            postingWeights[t] = new float[documentFrequency[t]];
+        }
+        for (int s = 0; s < count; s++) {
+            values[s] = new float[terms[s].length];
+            double norm = 0;
+            for (int k = 0; k < terms[s].length; k++) {
+                double w = (1 + Math.log(frequencies[s][k])) * idf[terms[s][k]];
+                values[s][k] = (float) w;
+                norm += w * w;
+            }
+            norm = Math.sqrt(norm);
+            for (int k = 0; k < terms[s].length; k++) {
+                values[s][k] /= (float) norm;
+                int t = terms[s][k];
+                postingSentences[t][fill[t]] = s;
+                postingWeights[t][fill[t]++] = values[s][k];
+            }
+        }
+
+        // Terms in a large share of sentences carry little signal and dominate the pairwise cost
+        int maxPostings = Math.max(100, count / 50);
+        return new SentenceVectors(terms, values, postingSentences, postingWeights, maxPostings);
+    }
+
+    private void buildRows(SentenceVectors vectors, int[][] neighbours, float[][] weights, int from, int to) {
+        int count = vectors.terms.length;
+        float[] accumulator = new float[count];
+        int[] touched = new int[count];
+        for (int s = from; s < to; s++) {
+            int touchedCount = 0;
+            for (int k = 0; k < vectors.terms[s].length; k++) {
+                int t = vectors.terms[s][k];
+                int[] postings = vectors.postingSentences[t];
+                if (postings.length > vectors.maxPostings) {
+                    continue;
+                }
+                float w = vectors.values[s][k];
+                float[] postingWeights = vectors.postingWeights[t];
+                for (int p = 0; p < postings.length; p++) {
+                    int other = postings[p];
+                    if (other == s) {
+                        continue;
+                    }
+                    if (accumulator[other] == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                    accumulator[other] += w * postingWeights[p];
+                }
+            }
+
+            int kept = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                if (accumulator[touched[i]] >= MIN_SIMILARITY) {
+                    touched[kept++] = touched[i];
+                }
+            }
+            neighbours[s] = Arrays.copyOf(touched, kept);
+            weights[s] = new float[kept];
+            for (int i = 0; i < kept; i++) {
+                weights[s][i] = accumulator[neighbours[s][i]];
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                accumulator[touched[i]] = 0;
+            }
+        }
+    }
+
+    // Weighted PageRank; the graph is symmetric up to float rounding, so each row lists both in- and out-edges
+    private double[] rank(int[][] neighbours, float[][] weights) {
+        int count = neighbours.length;
+        double[] outWeight = new double[count];
+        for (int s = 0; s < count; s++) {
+            for (float w : weights[s]) {
+                outWeight[s] += w;
+            }
+        }
+
+        // Edge weight divided by the source's total, so each iteration is a plain weighted sum. Each
+        // row sums its similarities in its own order, so a pair right at MIN_SIMILARITY can be kept
+        // on one side only; a source left with no edges of its own is dangling and already spreads
+        // its score evenly, so its edge is dropped rather than divided by zero.
+        float[][] transition = new float[count][];
+        for (int s = 0; s < count; s++) {
+            transition[s] = new float[neighbours[s].length];
+            for (int i = 0; i < neighbours[s].length; i++) {
+                double sourceWeight = outWeight[neighbours[s][i]];
+                transition[s][i] = sourceWeight > 0 ? (float) (weights[s][i] / sourceWeight) : 0f;
+            }
+        }
+
+        double[] scores = new double[count];
+        double[] next = new double[count];
+        Arrays.fill(scores, 1.0 / count);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            // Sentences with no edges spread their score evenly
+            double dangling = 0;
+            for (int s = 0; s < count; s++) {
+                if (outWeight[s] == 0) {
+                    dangling += scores[s];
+                }
+            }
+            double base = (1 - damping) / count + damping * dangling / count;
+            double[] current = scores;
+            double[] target = next;
+            forEachBlock(count, (from, to) -> {
+                for (int s = from; s < to; s++) {
+                    double sum = 0;
+                    int[] row = neighbours[s];
+                    float[] rowWeights = transition[s];
+                    for (int i = 0; i < row.length; i++) {
+                        sum += rowWeights[i] * current[row[i]];
+                    }
+                    target[s] = base + damping * sum;
+                }
+            });
+
+            double delta = 0;
+            for (int s = 0; s < count; s++) {
+                delta += Math.abs(next[s] - scores[s]);
+            }
+            scores = next;
+            next = current;
+            if (delta < tolerance) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void forEachBlock(int count, BlockTask task) {
+        int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (count < parallelThreshold || blocks < 2) {
+            task.run(0, count);
+            return;
+        }
+        // Parallel streams started inside the pool run on the pool rather than the common one
+        pool.submit(() -> IntStream.range(0, blocks).parallel()
+            .forEach(b -> task.run(b * BLOCK_SIZE, Math.min(count, (b + 1) * BLOCK_SIZE)))).join();
+    }
+
+    private String join(String text, List<int[]> sentences, boolean[] selected) {
+        StringBuilder summary = new StringBuilder();
+        for (int s = 0; s < sentences.size(); s++) {
+            if (selected != null && !selected[s]) {
+                continue;
+            }
+            int[] bounds = sentences.get(s);
+            if (summary.length() > 0) {
+                summary.append(' ');
+            }
+            summary.append(text, bounds[0], bounds[1]);
+        }
+        return summary.toString().replaceAll("\\s+", " ").trim();
+    }
+
+    @FunctionalInterface
+    private interface BlockTask {
+        void run(int from, int to);
+    }
+
+    private static class SentenceVectors {
+        private final int[][] terms;
+        private final float[][] values;
+        private final int[][] postingSentences;
+        private final float[][] postingWeights;
+        private final int maxPostings;
+
+        SentenceVectors(int[][] terms, float[][] values, int[][] postingSentences, float[][] postingWeights,
+                        int maxPostings) {
+            this.terms = terms;
+            this.values = values;
+            this.postingSentences = postingSentences;
+            this.postingWeights = postingWeights;
+            this.maxPostings = maxPostings;
+        }
+    }
+}
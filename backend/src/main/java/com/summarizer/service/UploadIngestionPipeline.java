@@ -0,0 +1,200 @@
+package com.summarizer.service;
+
+import com.summarizer.exception.FileProcessingException;
+import com.summarizer.exception.JobQueueFullException;
+import com.summarizer.model.IngestedFile;
+import com.summarizer.util.Hashing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Reads an upload exactly once: each block goes to the storage file, the SHA-256 digest and,
+// through a bounded pipe, to the text extractor running on the extraction pool.
+@Component
+public class UploadIngestionPipeline {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    @Autowired
+    @Qualifier("extractionExecutor")
+    private ThreadPoolTaskExecutor extractionExecutor;
+
+    @Value("${file.ingestion.pipe-buffer-bytes:65536}")
+    private int pipeBufferBytes;
+
+    @Value("${file.extraction.timeout-ms:60000}")
+    private long extractionTimeoutMs;
+
+    @FunctionalInterface
+    public interface TextExtractor {
+        String extract(InputStream stream) throws Exception;
+    }
+
+    public IngestedFile ingest(InputStream source, Path target, TextExtractor extractor) throws IOException {
+        PipedOutputStream toExtractor = new PipedOutputStream();
+        PipedInputStream extractorInput = new PipedInputStream(toExtractor, pipeBufferBytes);
+
+        ExtractionTask task = new ExtractionTask(extractorInput, extractor);
+        CompletableFuture<String> extraction;
+        try {
+            extraction = CompletableFuture.supplyAsync(task, extractionExecutor);
+        } catch (TaskRejectedException e) {
+            throw new JobQueueFullException("Too many uploads are being processed, please retry later", e);
+        }
+        // The extractor's own deadline only fires on parser output. A parser that hangs without any
+        // fails the upload here instead, and is aborted so neither this thread nor the worker stays stuck.
+        extraction.orTimeout(extractionTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((text, failure) -> {
+                    if (failure instanceof TimeoutException) {
+                        task.abort();
+                    }
+                });
+
+        MessageDigest digest = Hashing.sha256();
+        long size = 0;
+        try (InputStream in = source;
+             OutputStream fileOut = Files.newOutputStream(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream pipe = toExtractor) {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                fileOut.write(buffer, 0, read);
+                digest.update(buffer, 0, read);
+                pipe.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            if (timedOut(extraction)) {
+                throw extractionTimedOut();
+            }
+            extraction.cancel(true);
+            throw e;
+        }
+
+        try {
+            return new IngestedFile(size, Hashing.toHex(digest.digest()), extraction.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw extractionTimedOut();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new FileProcessingException("Failed to extract text from file: " + e.getCause().getMessage(), e);
+        }
+    }
+
+    private FileProcessingException extractionTimedOut() {
+        return new FileProcessingException("Text extraction timed out after " + extractionTimeoutMs + " ms");
+    }
+
+    private static boolean timedOut(CompletableFuture<String> extraction) {
+        try {
+            extraction.getNow(null);
+            return false;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof TimeoutException;
+        } catch (CancellationException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(PipedInputStream input) {
+        try {
+            input.close();
+        } catch (IOException ignored) {
+            // nothing to release
+        }
+    }
+
+    // Extraction on a pool thread that can be aborted: closing the pipe unblocks the writer and any
+    // read in the parser, and the interrupt reaches a parser waiting on anything else
+    private class ExtractionTask implements Supplier<String> {
+
+        private final PipedInputStream input;
+        private final TextExtractor extractor;
+        private Thread worker;
+        private boolean aborted;
+
+        ExtractionTask(PipedInputStream input, TextExtractor extractor) {
+            this.input = input;
+            this.extractor = extractor;
+        }
+
+        @Override
+        public String get() {
+            synchronized (this) {
+                if (aborted) {
+                    throw extractionTimedOut();
+                }
+                worker = Thread.currentThread();
+            }
+            try {
+                return extractAndDrain(input, extractor);
+            } finally {
+                synchronized (this) {
+                    worker = null;
+                    // An abort racing the end of the task must not leave the pool thread interrupted
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            closeQuietly(input);
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private String extractAndDrain(PipedInputStream input, TextExtractor extractor) {
+        // Parsers close their input; shield the pipe so it can still be drained afterwards
+        InputStream shielded = new FilterInputStream(input) {
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            return extractor.extract(shielded);
+        } catch (Exception e) {
+            throw new FileProcessingException("Failed to extract text from file: " + e.getMessage(), e);
+        } finally {
+            // Parsers may stop before EOF; keep reading so the writer never blocks on a full pipe
+            drain(input);
+        }
+    }
+
+    private void drain(PipedInputStream input) {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (input) {
+            while (input.read(buffer) != -1) {
+                // discard
+            }
+        } catch (IOException ignored) {
+            // writer side closed or failed; nothing left to drain
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.summarizer.service;
 
+import com.summarizer.dto.CursorPage;
 import com.summarizer.entity.Document;
 import com.summarizer.entity.User;
 import com.summarizer.exception.ResourceNotFoundException;
+import com.summarizer.model.DocumentSearchView;
 import com.summarizer.repository.DocumentRepository;
 import com.summarizer.repository.UserRepository;
+import com.summarizer.util.Cursors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -23,6 +31,12 @@ public class UserService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private SearchEngine searchEngine;
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
     public UUID getCurrentUserId(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
@@ -39,16 +53,74 @@ public class UserService {
             .orElseThrow(() -> new ResourceNotFoundException("Document", "id", documentId));
     }
 
+    // Ownership check that doesn't load the document
+    public void verifyDocumentOwnership(UUID documentId, UUID userId) {
+        if (!documentRepository.existsByIdAndUserId(documentId, userId)) {
+            throw new ResourceNotFoundException("Document", "id", documentId);
+        }
+    }
+
     public Page<Document> getUserDocuments(UUID userId, Pageable pageable) {
         return documentRepository.findByUserIdOrderByUploadTimestampDesc(userId, pageable);
     }
 
+    // Keyset listing on (uploadTimestamp, id); the cursor is the last row of the previous page
+    public CursorPage<Document> getUserDocumentsAfter(UUID userId, String cursor, int size, boolean ascending) {
+        LocalDateTime afterTimestamp = ascending ? Cursors.MIN_TIMESTAMP : Cursors.MAX_TIMESTAMP;
+        UUID afterId = ascending ? Cursors.MIN_ID : Cursors.MAX_ID;
+        if (cursor != null) {
+            String[] values = Cursors.decode(cursor, 2);
+            afterTimestamp = Cursors.parseTimestamp(values[0]);
+            afterId = Cursors.parseUuid(values[1]);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Document> slice = ascending
+            ? documentRepository.findSliceByUserIdAscending(userId, afterTimestamp, afterId, pageable)
+            : documentRepository.findSliceByUserIdDescending(userId, afterTimestamp, afterId, pageable);
+        if (!slice.hasNext()) {
+            return new CursorPage<>(slice.getContent(), null);
+        }
+        Document last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return new CursorPage<>(slice.getContent(), Cursors.encode(last.getUploadTimestamp(), last.getId()));
+    }
+
     public Page<Document> searchUserDocuments(UUID userId, String searchTerm, Pageable pageable) {
-        return documentRepository.findByUserIdAndSearchTerm(userId, searchTerm, pageable);
+        return searchEngine.searchDocuments(userId, searchTerm, pageable);
+    }
+
+    // Best matches first; the cursor holds the (filename match, rank, id) of the last row already
+    // returned. 2 is above either value of the filename flag, so the first page seeks like any other.
+    public CursorPage<DocumentSearchView> searchUserDocumentsRanked(UUID userId, String query, String cursor, int size) {
+        int afterFilenameMatch = 2;
+        BigDecimal afterRank = Cursors.MAX_RANK;
+        UUID afterId = Cursors.MIN_ID;
+        if (cursor != null) {
+            String[] values = Cursors.decode(cursor, 3);
+            afterFilenameMatch = Cursors.parseBoolean(values[0]) ? 1 : 0;
+            afterRank = Cursors.parseDecimal(values[1]);
+            afterId = Cursors.parseUuid(values[2]);
+        }
+
+        List<DocumentSearchView> rows = documentRepository.searchRanked(userId, query, afterFilenameMatch, afterRank,
+                afterId, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<DocumentSearchView> page = rows.subList(0, size);
+        DocumentSearchView last = page.get(size - 1);
+        return new CursorPage<>(page, Cursors.encode(last.getFilenameMatch(), last.getRank().toPlainString(),
+                last.getId()));
     }
 
-    public void deleteDocument(UUID documentId) {
-        documentRepository.deleteById(documentId);
+    // Summaries go with the row (ON DELETE CASCADE). The file reference is dropped in the same
+    // transaction, so a failed delete can't leave a shared blob counted one too low.
+    public void deleteDocument(Document document) {
+        documentRepository.deleteById(document.getId());
+        if (document.getFilePath() != null) {
+            documentProcessingService.deleteDocumentFile(document.getUserId(), document.getFilePath());
+        }
+        searchEngine.documentDeleted(document.getUserId(), document.getId());
     }
 
     public long getUserDocumentCount(UUID userId) {
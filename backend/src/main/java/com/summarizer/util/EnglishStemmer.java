@@ -0,0 +1,286 @@
+package com.summarizer.util;
+
+import java.util.Map;
+import java.util.Set;
+
+// The Snowball English (Porter2) stemmer, which is what Postgres's english_stem dictionary runs.
+// Expects a lowercased word of letters; each step strips the longest matching suffix in its list
+// and leaves the word alone when that suffix's condition fails, as the Snowball definition does.
+public final class EnglishStemmer {
+
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+        Map.entry("skis", "ski"), Map.entry("skies", "sky"), Map.entry("dying", "die"),
+        Map.entry("lying", "lie"), Map.entry("tying", "tie"), Map.entry("idly", "idl"),
+        Map.entry("gently", "gentl"), Map.entry("ugly", "ugli"), Map.entry("early", "earli"),
+        Map.entry("only", "onli"), Map.entry("singly", "singl"), Map.entry("sky", "sky"),
+        Map.entry("news", "news"), Map.entry("howe", "howe"), Map.entry("atlas", "atlas"),
+        Map.entry("cosmos", "cosmos"), Map.entry("bias", "bias"), Map.entry("andes", "andes")
+    );
+
+    // Left as they are after step 1a
+    private static final Set<String> INVARIANTS_AFTER_1A = Set.of(
+        "inning", "outing", "canning", "herring", "earring", "proceed", "exceed", "succeed"
+    );
+
+    private static final String[] STEP_2 = {
+        "ization", "ational", "fulness", "ousness", "iveness", "tional", "biliti", "lessli", "entli", "ation",
+        "alism", "aliti", "ousli", "iviti", "fulli", "enci", "anci", "abli", "izer", "ator", "alli", "bli",
+        "ogi", "li"
+    };
+    private static final String[] STEP_2_REPLACEMENTS = {
+        "ize", "ate", "ful", "ous", "ive", "tion", "ble", "less", "ent", "ate",
+        "al", "al", "ous", "ive", "ful", "ence", "ance", "able", "ize", "ate", "al", "ble",
+        "og", ""
+    };
+
+    private static final String[] STEP_3 = {
+        "ational", "tional", "alize", "icate", "iciti", "ative", "ical", "ness", "ful"
+    };
+    private static final String[] STEP_3_REPLACEMENTS = {
+        "ate", "tion", "al", "ic", "ic", "", "ic", "", ""
+    };
+
+    private static final String[] STEP_4 = {
+        "ement", "ance", "ence", "able", "ible", "ment", "ant", "ent", "ism", "ate", "iti", "ous", "ive",
+        "ize", "ion", "al", "er", "ic"
+    };
+
+    private EnglishStemmer() {}
+
+    public static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        String exception = EXCEPTIONS.get(word);
+        if (exception != null) {
+            return exception;
+        }
+
+        StringBuilder w = new StringBuilder(word);
+        // A y that acts as a consonant is marked Y so it doesn't count as a vowel
+        for (int i = 0; i < w.length(); i++) {
+            if (w.charAt(i) == 'y' && (i == 0 || isVowel(w.charAt(i - 1)))) {
+                w.setCharAt(i, 'Y');
+            }
+        }
+        int r1 = regionOne(w);
+        int r2 = regionAfter(w, r1);
+
+        step1a(w);
+        if (INVARIANTS_AFTER_1A.contains(w.toString())) {
+            return w.toString();
+        }
+        step1b(w, r1);
+        step1c(w);
+        step2(w, r1);
+        step3(w, r1, r2);
+        step4(w, r2);
+        step5(w, r1, r2);
+
+        for (int i = 0; i < w.length(); i++) {
+            if (w.charAt(i) == 'Y') {
+                w.setCharAt(i, 'y');
+            }
+        }
+        return w.toString();
+    }
+
+    private static void step1a(StringBuilder w) {
+        if (endsWith(w, "sses")) {
+            w.setLength(w.length() - 2);
+        } else if (endsWith(w, "ied") || endsWith(w, "ies")) {
+            // ties -> tie, cries -> cri
+            w.setLength(w.length() > 4 ? w.length() - 2 : w.length() - 1);
+        } else if (endsWith(w, "us") || endsWith(w, "ss")) {
+            return;
+        } else if (endsWith(w, "s")) {
+            // Only when a vowel comes before the letter ahead of the s: gaps -> gap, gas stays
+            if (containsVowel(w, 0, w.length() - 2)) {
+                w.setLength(w.length() - 1);
+            }
+        }
+    }
+
+    private static void step1b(StringBuilder w, int r1) {
+        String suffix = longest(w, "eedly", "ingly", "edly", "eed", "ing", "ed");
+        if (suffix == null) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        if (suffix.startsWith("eed")) {
+            if (start >= r1) {
+                w.setLength(start + 2);
+            }
+            return;
+        }
+        if (!containsVowel(w, 0, start)) {
+            return;
+        }
+        w.setLength(start);
+        if (endsWith(w, "at") || endsWith(w, "bl") || endsWith(w, "iz")) {
+            w.append('e');
+        } else if (endsWithDouble(w)) {
+            w.setLength(w.length() - 1);
+        } else if (isShort(w, r1)) {
+            w.append('e');
+        }
+    }
+
+    private static void step1c(StringBuilder w) {
+        int n = w.length();
+        char last = w.charAt(n - 1);
+        if ((last == 'y' || last == 'Y') && n > 2 && !isVowel(w.charAt(n - 2))) {
+            w.setCharAt(n - 1, 'i');
+        }
+    }
+
+    // "ogi" needs an l before it and a bare "li" a valid li-ending
+    private static void step2(StringBuilder w, int r1) {
+        String suffix = longest(w, STEP_2);
+        if (suffix == null) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        if (start < r1) {
+            return;
+        }
+        if (suffix.equals("ogi") && (start == 0 || w.charAt(start - 1) != 'l')) {
+            return;
+        }
+        if (suffix.equals("li") && (start == 0 || "cdeghkmnrt".indexOf(w.charAt(start - 1)) < 0)) {
+            return;
+        }
+        for (int i = 0; i < STEP_2.length; i++) {
+            if (STEP_2[i].equals(suffix)) {
+                w.replace(start, w.length(), STEP_2_REPLACEMENTS[i]);
+                return;
+            }
+        }
+    }
+
+    private static void step3(StringBuilder w, int r1, int r2) {
+        String suffix = longest(w, STEP_3);
+        if (suffix == null) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        if (start < r1 || (suffix.equals("ative") && start < r2)) {
+            return;
+        }
+        for (int i = 0; i < STEP_3.length; i++) {
+            if (STEP_3[i].equals(suffix)) {
+                w.replace(start, w.length(), STEP_3_REPLACEMENTS[i]);
+                return;
+            }
+        }
+    }
+
+    private static void step4(StringBuilder w, int r2) {
+        String suffix = longest(w, STEP_4);
+        if (suffix == null) {
+            return;
+        }
+        int start = w.length() - suffix.length();
+        if (start < r2) {
+            return;
+        }
+        if (suffix.equals("ion") && (start == 0 || (w.charAt(start - 1) != 's' && w.charAt(start - 1) != 't'))) {
+            return;
+        }
+        w.setLength(start);
+    }
+
+    private static void step5(StringBuilder w, int r1, int r2) {
+        int n = w.length();
+        char last = w.charAt(n - 1);
+        if (last == 'e') {
+            if (n - 1 >= r2 || (n - 1 >= r1 && !endsWithShortSyllable(w, n - 1))) {
+                w.setLength(n - 1);
+            }
+        } else if (last == 'l' && n - 1 >= r2 && n > 1 && w.charAt(n - 2) == 'l') {
+            w.setLength(n - 1);
+        }
+    }
+
+    // R1 starts after the first non-vowel that follows a vowel; a few prefixes fix it earlier
+    private static int regionOne(CharSequence w) {
+        for (String prefix : new String[] {"gener", "commun", "arsen"}) {
+            if (w.length() >= prefix.length() && w.subSequence(0, prefix.length()).toString().equals(prefix)) {
+                return prefix.length();
+            }
+        }
+        return regionAfter(w, 0);
+    }
+
+    private static int regionAfter(CharSequence w, int from) {
+        for (int i = from + 1; i < w.length(); i++) {
+            if (!isVowel(w.charAt(i)) && isVowel(w.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return w.length();
+    }
+
+    // A short word ends in a short syllable and has an empty R1
+    private static boolean isShort(StringBuilder w, int r1) {
+        return r1 >= w.length() && endsWithShortSyllable(w, w.length());
+    }
+
+    // Whether w[0, end) ends in a short syllable: non-vowel, vowel, then a non-vowel other than
+    // w, x or Y; or, for two letters, a vowel followed by a non-vowel
+    private static boolean endsWithShortSyllable(CharSequence w, int end) {
+        if (end == 2) {
+            return isVowel(w.charAt(0)) && !isVowel(w.charAt(1));
+        }
+        if (end < 3) {
+            return false;
+        }
+        char last = w.charAt(end - 1);
+        return !isVowel(w.charAt(end - 3)) && isVowel(w.charAt(end - 2)) && !isVowel(last)
+            && last != 'w' && last != 'x' && last != 'Y';
+    }
+
+    private static boolean endsWithDouble(CharSequence w) {
+        int n = w.length();
+        if (n < 2 || w.charAt(n - 1) != w.charAt(n - 2)) {
+            return false;
+        }
+        return "bdfgmnprt".indexOf(w.charAt(n - 1)) >= 0;
+    }
+
+    private static String longest(CharSequence w, String... suffixes) {
+        String best = null;
+        for (String suffix : suffixes) {
+            if ((best == null || suffix.length() > best.length()) && endsWith(w, suffix)) {
+                best = suffix;
+            }
+        }
+        return best;
+    }
+
+    private static boolean endsWith(CharSequence w, String suffix) {
+        int offset = w.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (w.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsVowel(CharSequence w, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isVowel(w.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+}
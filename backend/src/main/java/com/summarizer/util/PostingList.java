@@ -0,0 +1,133 @@
+package com.summarizer.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Postings of one term: ascending doc ordinals, each stored as the varint gap from the previous
+// ordinal followed by the varint term frequency. Ordinals only ever grow, so adding a doc is an
+// append. Postings loaded from a segment stay in the mapped file; later adds go to a heap tail
+// that continues the same gap encoding, so writing the list out is the two byte runs back to back.
+public final class PostingList {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ByteBuffer base;
+    private final int baseLength;
+    private byte[] tail = EMPTY;
+    private int tailLength;
+    private int size;
+    private int lastDoc = -1;
+
+    public PostingList() {
+        this.base = null;
+        this.baseLength = 0;
+    }
+
+    // Postings read from a segment; base holds exactly their bytes
+    public PostingList(ByteBuffer base, int size, int lastDoc) {
+        this.base = base;
+        this.baseLength = base.remaining();
+        this.size = size;
+        this.lastDoc = lastDoc;
+    }
+
+    public void add(int doc, int freq) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc " + doc + " added after " + lastDoc);
+        }
+        ensureTail(10);
+        tailLength = writeVarint(tail, tailLength, doc - lastDoc);
+        tailLength = writeVarint(tail, tailLength, freq);
+        lastDoc = doc;
+        size++;
+    }
+
+    // Number of docs, including ones the partition has since deleted
+    public int size() {
+        return size;
+    }
+
+    public int lastDoc() {
+        return lastDoc;
+    }
+
+    public int byteLength() {
+        return baseLength + tailLength;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        if (baseLength > 0) {
+            ByteBuffer bytes = base.duplicate();
+            byte[] chunk = new byte[Math.min(baseLength, 8192)];
+            while (bytes.hasRemaining()) {
+                int n = Math.min(chunk.length, bytes.remaining());
+                bytes.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        }
+        out.write(tail, 0, tailLength);
+    }
+
+    private void ensureTail(int extra) {
+        if (tailLength + extra > tail.length) {
+            tail = Arrays.copyOf(tail, Math.max(16, Math.max(tail.length * 2, tailLength + extra)));
+        }
+    }
+
+    private byte byteAt(int index) {
+        return index < baseLength ? base.get(base.position() + index) : tail[index - baseLength];
+    }
+
+    private static int writeVarint(byte[] target, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    // Walks the postings in doc order
+    public final class Cursor {
+        private int offset;
+        private int remaining = size;
+        private int doc = -1;
+        private int freq;
+
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            doc += readVarint();
+            freq = readVarint();
+            remaining--;
+            return true;
+        }
+
+        public int doc() {
+            return doc;
+        }
+
+        public int freq() {
+            return freq;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = byteAt(offset++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
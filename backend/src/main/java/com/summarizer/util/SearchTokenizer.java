@@ -0,0 +1,80 @@
+package com.summarizer.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Splits text into search terms the way Postgres's english text search configuration does, so the
+// in-JVM index and the database search agree on what a query matches: lowercased runs of letters
+// and digits; words of letters only are dropped when they are on the english stop list and
+// otherwise Snowball-stemmed, while words with digits are kept as they are. Runs longer than
+// 40 characters are dropped. Indexed text and queries go through the same steps.
+public final class SearchTokenizer {
+
+    // Bump when the terms change, so indexes built with the old ones are rebuilt
+    public static final int VERSION = 2;
+
+    private static final int MAX_TERM_LENGTH = 40;
+
+    // Postgres's english.stop, which is the Snowball English stop list
+    private static final Set<String> STOP_WORDS = Set.of(
+        "i", "me", "my", "myself", "we", "our", "ours", "ourselves", "you", "your", "yours", "yourself",
+        "yourselves", "he", "him", "his", "himself", "she", "her", "hers", "herself", "it", "its", "itself",
+        "they", "them", "their", "theirs", "themselves", "what", "which", "who", "whom", "this", "that",
+        "these", "those", "am", "is", "are", "was", "were", "be", "been", "being", "have", "has", "had",
+        "having", "do", "does", "did", "doing", "a", "an", "the", "and", "but", "if", "or", "because", "as",
+        "until", "while", "of", "at", "by", "for", "with", "about", "against", "between", "into", "through",
+        "during", "before", "after", "above", "below", "to", "from", "up", "down", "in", "out", "on", "off",
+        "over", "under", "again", "further", "then", "once", "here", "there", "when", "where", "why", "how",
+        "all", "any", "both", "each", "few", "more", "most", "other", "some", "such", "no", "nor", "not",
+        "only", "own", "same", "so", "than", "too", "very", "s", "t", "can", "will", "just", "don", "should",
+        "now"
+    );
+
+    private SearchTokenizer() {}
+
+    // Distinct terms of a query
+    public static List<String> terms(CharSequence text) {
+        Map<String, Integer> counts = new HashMap<>();
+        countTerms(text, text == null ? 0 : text.length(), 1, counts);
+        return new ArrayList<>(counts.keySet());
+    }
+
+    // Adds weight to each term's count for every occurrence in the first maxChars characters and
+    // returns the number of terms seen, which is the text's length for ranking
+    public static int countTerms(CharSequence text, int maxChars, int weight, Map<String, Integer> counts) {
+        if (text == null) {
+            return 0;
+        }
+        int end = Math.min(text.length(), maxChars);
+        int length = 0;
+        StringBuilder term = new StringBuilder(MAX_TERM_LENGTH);
+        boolean tooLong = false;
+        boolean hasDigit = false;
+        for (int i = 0; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(Character.toLowerCase(c));
+                    hasDigit |= Character.isDigit(c);
+                } else {
+                    tooLong = true;
+                }
+                continue;
+            }
+            if (term.length() > 0) {
+                String word = term.toString();
+                if (!tooLong && (hasDigit || !STOP_WORDS.contains(word))) {
+                    counts.merge(hasDigit ? word : EnglishStemmer.stem(word), weight, Integer::sum);
+                    length += weight;
+                }
+                term.setLength(0);
+                tooLong = false;
+                hasDigit = false;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,120 @@
+package com.summarizer.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Single-pass equivalent of the old cleanup chain on extracted text: trim(), CRLF and CR to LF,
+// three or more line breaks (with whitespace between them) down to a blank line, and runs of
+// spaces down to one. Whitespace is held back until the next visible character arrives, which
+// is what lets it work on a stream.
+public final class TextNormalizer {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final StringBuilder out;
+    private final StringBuilder pending = new StringBuilder();
+    private boolean started;
+
+    // Current whitespace run, as the \n\s*\n\s*\n pattern would see it
+    private boolean inRun;
+    private int newlines;
+    private int firstNewline;
+    private int afterLastNewline;
+
+    private TextNormalizer(int capacity) {
+        this.out = new StringBuilder(capacity);
+    }
+
+    public static String normalize(CharSequence text) {
+        if (text == null) {
+            return "";
+        }
+        TextNormalizer normalizer = new TextNormalizer(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            normalizer.accept(text.charAt(i));
+        }
+        return normalizer.finish();
+    }
+
+    public static String normalize(Reader reader) throws IOException {
+        TextNormalizer normalizer = new TextNormalizer(READ_BUFFER_SIZE);
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                normalizer.accept(buffer[i]);
+            }
+        }
+        return normalizer.finish();
+    }
+
+    private void accept(char c) {
+        if (c <= ' ') {
+            // Leading ones are dropped; the rest wait so that trailing ones can be dropped too
+            if (started) {
+                pending.append(c);
+            }
+            return;
+        }
+        started = true;
+        if (pending.length() > 0) {
+            flushPending();
+        }
+        endRun();
+        out.append(c);
+    }
+
+    private void flushPending() {
+        int length = pending.length();
+        for (int i = 0; i < length; i++) {
+            char c = pending.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < length && pending.charAt(i + 1) == '\n') {
+                    continue;
+                }
+                c = '\n';
+            }
+            if (isRegexWhitespace(c)) {
+                whitespace(c);
+            } else {
+                endRun();
+                out.append(c);
+            }
+        }
+        pending.setLength(0);
+    }
+
+    private void whitespace(char c) {
+        inRun = true;
+        if (c == '\n') {
+            if (newlines++ == 0) {
+                firstNewline = out.length();
+            }
+            out.append('\n');
+            afterLastNewline = out.length();
+        } else if (c != ' ' || out.charAt(out.length() - 1) != ' ') {
+            out.append(c);
+        }
+    }
+
+    // The regex match runs from the first to the last line break of the run; what surrounds it stays
+    private void endRun() {
+        if (inRun && newlines >= 3) {
+            String tail = out.substring(afterLastNewline);
+            out.setLength(firstNewline);
+            out.append("\n\n").append(tail);
+        }
+        inRun = false;
+        newlines = 0;
+    }
+
+    private String finish() {
+        endRun();
+        return out.toString();
+    }
+
+    // Same set as \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,9 @@
+-- Keyset pagination: listings seek to (sort key, id) of the last row seen instead of counting
+-- and skipping. Each index ends in id so ties on the timestamp still have a fixed order, and
+-- replaces the single-column index that is now its prefix.
+CREATE INDEX idx_documents_user_upload_timestamp_id ON documents(user_id, upload_timestamp, id);
+DROP INDEX IF EXISTS idx_documents_user_id;
+
+-- Summaries reach their user through documents; the join filters while this index supplies the order
+CREATE INDEX idx_summaries_created_at_id ON summaries(created_at, id);
+DROP INDEX IF EXISTS idx_summaries_created_at;
@@ -0,0 +1,2 @@
+-- Per-chunk timings recorded for map-reduce summaries of long documents
+ALTER TABLE summaries ADD COLUMN chunk_timings TEXT;
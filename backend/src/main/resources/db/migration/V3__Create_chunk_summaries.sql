@@ -0,0 +1,12 @@
+-- Intermediate per-chunk summaries, reused when a document is re-summarized at another ratio
+CREATE TABLE chunk_summaries (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    document_id UUID NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    chunk_index INTEGER NOT NULL,
+    chunk_hash VARCHAR(64) NOT NULL,
+    model_used VARCHAR(50) NOT NULL,
+    summary_text TEXT NOT NULL,
+    processing_time_ms INTEGER,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (document_id, chunk_hash, model_used)
+);
@@ -0,0 +1,2 @@
+-- SHA-256 of the uploaded bytes, computed while the upload is streamed to storage
+ALTER TABLE documents ADD COLUMN content_hash VARCHAR(64);
@@ -0,0 +1,4 @@
+-- Chunked uploads save the document before its text is extracted
+ALTER TABLE documents DROP CONSTRAINT documents_status_check;
+ALTER TABLE documents ADD CONSTRAINT documents_status_check
+    CHECK (status IN ('uploaded', 'extracting', 'processing', 'completed', 'failed'));
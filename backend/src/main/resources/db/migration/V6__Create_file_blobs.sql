@@ -0,0 +1,11 @@
+-- Content-addressed upload storage: one file per distinct SHA-256, shared by every document
+-- with those bytes. ref_count is the number of documents pointing at the blob.
+CREATE TABLE file_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_documents_content_hash ON documents(content_hash);
@@ -0,0 +1,9 @@
+-- Content type recorded at upload so downloads don't have to probe the file
+ALTER TABLE documents ADD COLUMN content_type VARCHAR(100);
+
+UPDATE documents SET content_type = CASE
+    WHEN LOWER(original_filename) LIKE '%.pdf' THEN 'application/pdf'
+    WHEN LOWER(original_filename) LIKE '%.txt' THEN 'text/plain'
+    WHEN LOWER(original_filename) LIKE '%.docx' THEN 'application/vnd.openxmlformats-officedocument.wordprocessingml.document'
+    WHEN LOWER(original_filename) LIKE '%.doc' THEN 'application/msword'
+END;
@@ -0,0 +1,10 @@
+-- Extracted text moves out of documents so listing, search and ownership checks don't read it
+CREATE TABLE document_contents (
+    document_id UUID PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    content_text TEXT
+);
+
+INSERT INTO document_contents (document_id, content_text)
+SELECT id, content_text FROM documents;
+
+ALTER TABLE documents DROP COLUMN content_text;
@@ -0,0 +1,26 @@
+-- Indexed search instead of LIKE '%term%' over whole TEXT columns. The vectors are generated
+-- columns so every write path keeps them current.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- A tsvector can't exceed 1MB, and a million characters of text can produce more than that
+-- (every distinct word costs its text plus entry and position overhead). Vectors cover the first
+-- million characters where they fit; otherwise the first 100000, which stays well under the limit
+-- even for text made entirely of short distinct words.
+CREATE FUNCTION search_vector_of(body text) RETURNS tsvector AS $$
+BEGIN
+    RETURN to_tsvector('english', left(coalesce(body, ''), 1000000));
+EXCEPTION WHEN program_limit_exceeded THEN
+    RETURN to_tsvector('english', left(body, 100000));
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE document_contents ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (search_vector_of(content_text)) STORED;
+CREATE INDEX idx_document_contents_search_vector ON document_contents USING GIN (search_vector);
+
+ALTER TABLE summaries ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (search_vector_of(summary_text)) STORED;
+CREATE INDEX idx_summaries_search_vector ON summaries USING GIN (search_vector);
+
+-- Substring matches on file names
+CREATE INDEX idx_documents_filename_trgm ON documents USING GIN (lower(original_filename) gin_trgm_ops);
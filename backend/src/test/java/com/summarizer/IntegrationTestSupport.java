@@ -0,0 +1,71 @@
+package com.summarizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.UUID;
+
+// Full application against real Postgres and Redis. The containers are started once and shared by
+// every test class in the run (Testcontainers removes them when the JVM exits), so cached Spring
+// contexts keep pointing at live databases. Classes are skipped when Docker isn't available.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class IntegrationTestSupport {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void containerProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        REDIS.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.data.redis.url", () -> "redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        registry.add("jwt.secret", () -> "integration-test-secret-of-at-least-thirty-two-bytes");
+        String uploads = tempDirectory("uploads");
+        String searchIndex = tempDirectory("search-index");
+        registry.add("file.storage.path", () -> uploads);
+        registry.add("search.index.path", () -> searchIndex);
+    }
+
+    protected UUID createUser() {
+        return createUser(UUID.randomUUID() + "@example.com");
+    }
+
+    protected UUID createUser(String email) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO users (email, password_hash) VALUES (?, 'not-a-hash') RETURNING id", UUID.class, email);
+    }
+
+    protected UUID createDocument(UUID userId, String filename, String contentText) {
+        UUID documentId = jdbcTemplate.queryForObject(
+            "INSERT INTO documents (user_id, original_filename, file_type, file_size, content_type, status) " +
+            "VALUES (?, ?, 'txt', ?, 'text/plain', 'uploaded') RETURNING id",
+            UUID.class, userId, filename, (long) contentText.length());
+        jdbcTemplate.update("INSERT INTO document_contents (document_id, content_text) VALUES (?, ?)",
+            documentId, contentText);
+        return documentId;
+    }
+
+    private static String tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
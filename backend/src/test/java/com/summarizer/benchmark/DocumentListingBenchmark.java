@@ -0,0 +1,79 @@
+package com.summarizer.benchmark;
+
+import com.summarizer.IntegrationTestSupport;
+import com.summarizer.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Heap and latency of GET /api/documents for a user with many large documents, next to the same
+// page read the way it was before the extracted text moved to document_contents (every row
+// dragging its content_text along).
+//
+//   mvn test -Pbenchmark -Dtest=DocumentListingBenchmark -Dbenchmark.documents=10000 -Dbenchmark.content-kb=256
+@Tag("benchmark")
+@AutoConfigureMockMvc
+class DocumentListingBenchmark extends IntegrationTestSupport {
+
+    private static final int DOCUMENTS = Integer.getInteger("benchmark.documents", 10_000);
+    private static final int CONTENT_KB = Integer.getInteger("benchmark.content-kb", 256);
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUPS = 20;
+    private static final int RUNS = 200;
+
+    private static final String PAGE_WITH_CONTENT =
+        "SELECT d.*, c.content_text FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id " +
+        "WHERE d.user_id = ? ORDER BY d.upload_timestamp DESC, d.id DESC LIMIT ? OFFSET 0";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void listDocuments() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        UUID userId = createUser(email);
+        long started = System.currentTimeMillis();
+        jdbcTemplate.update(
+            "INSERT INTO documents (user_id, original_filename, file_type, file_size, content_type, status, upload_timestamp) " +
+            "SELECT ?, 'report-' || g || '.txt', 'txt', ?, 'text/plain', 'completed', now() - g * interval '1 second' " +
+            "FROM generate_series(1, ?) AS g",
+            userId, CONTENT_KB * 1024L, DOCUMENTS);
+        // 33-character tokens repeated to the requested size
+        jdbcTemplate.update(
+            "INSERT INTO document_contents (document_id, content_text) " +
+            "SELECT id, repeat(md5(id::text) || ' ', ?) FROM documents WHERE user_id = ?",
+            CONTENT_KB * 1024 / 33, userId);
+        jdbcTemplate.execute("ANALYZE documents");
+        jdbcTemplate.execute("ANALYZE document_contents");
+        System.out.printf("Loaded %,d documents of %d KB in %,d ms%n",
+            DOCUMENTS, CONTENT_KB, System.currentTimeMillis() - started);
+
+        Measurement endpoint = Measurement.of("GET /api/documents?size=" + PAGE_SIZE, WARMUPS, RUNS, () ->
+            mockMvc.perform(get("/api/documents").param("size", String.valueOf(PAGE_SIZE)).with(user(email)))
+                .andExpect(status().isOk()));
+        Measurement listing = Measurement.of("listing query", WARMUPS, RUNS, () ->
+            userService.getUserDocuments(userId, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "uploadTimestamp", "id"))));
+        Measurement withContent = Measurement.of("listing query with content_text (before V8)", WARMUPS, RUNS, () -> {
+            jdbcTemplate.queryForList(PAGE_WITH_CONTENT, userId, PAGE_SIZE);
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM documents WHERE user_id = ?", Long.class, userId);
+        });
+
+        // The whole request, JSON included, must allocate less than the old query alone
+        assertThat(endpoint.getAllocatedBytesPerRun()).isLessThan(withContent.getAllocatedBytesPerRun());
+        assertThat(listing.getAllocatedBytesPerRun()).isLessThan(withContent.getAllocatedBytesPerRun());
+    }
+}
@@ -0,0 +1,129 @@
+package com.summarizer.benchmark;
+
+import com.summarizer.IntegrationTestSupport;
+import com.summarizer.model.IngestedFile;
+import com.summarizer.service.DocumentProcessingService;
+import com.summarizer.service.UploadIngestionPipeline;
+import com.summarizer.util.Hashing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Storing, hashing and extracting an upload in one pass through UploadIngestionPipeline, against
+// the earlier path that copied the upload to storage and then read the stored file a second time
+// for extraction. The upload is read from disk, as a spooled multipart file would be.
+//
+//   mvn test -Pbenchmark -Dtest=IngestionBenchmark -Dbenchmark.upload-mb=48
+//   mvn test -Pbenchmark -Dtest=IngestionBenchmark -Dbenchmark.file=/path/to/report.pdf
+@Tag("benchmark")
+class IngestionBenchmark extends IntegrationTestSupport {
+
+    private static final int UPLOAD_MB = Integer.getInteger("benchmark.upload-mb", 48);
+    private static final String FILE = System.getProperty("benchmark.file");
+    private static final int WARMUPS = 3;
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 10);
+
+    @Autowired
+    private UploadIngestionPipeline uploadIngestionPipeline;
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
+    private Path workDir;
+
+    @AfterEach
+    void deleteWorkDir() throws IOException {
+        if (workDir == null) {
+            return;
+        }
+        try (var paths = Files.walk(workDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void singlePassAgainstTwoReads() throws Exception {
+        workDir = Files.createTempDirectory("ingestion-benchmark");
+        Path upload = FILE != null ? Path.of(FILE) : writeText(workDir.resolve("upload.txt"), UPLOAD_MB);
+        String extension = extensionOf(upload);
+        long size = Files.size(upload);
+        Path target = workDir.resolve("stored" + extension);
+        System.out.printf("Ingesting %s (%,d bytes)%n", upload.getFileName(), size);
+
+        IngestedFile singlePass = ingestSinglePass(upload, target, extension, size);
+        IngestedFile twoReads = ingestTwoReads(upload, target, extension, size);
+        assertThat(singlePass.getSha256()).isEqualTo(twoReads.getSha256());
+        assertThat(singlePass.getExtractedText()).isEqualTo(twoReads.getExtractedText());
+
+        Measurement pipeline = Measurement.of("single pass (store, hash, extract)", WARMUPS, RUNS, () ->
+            ingestSinglePass(upload, target, extension, size));
+        Measurement legacy = Measurement.of("copy and hash, then extract from the copy", WARMUPS, RUNS, () ->
+            ingestTwoReads(upload, target, extension, size));
+
+        // Extraction overlaps the copy instead of waiting for it
+        assertThat(pipeline.percentileMillis(50)).isLessThan(legacy.percentileMillis(50));
+    }
+
+    private IngestedFile ingestSinglePass(Path upload, Path target, String extension, long size) throws IOException {
+        return uploadIngestionPipeline.ingest(Files.newInputStream(upload), target,
+            stream -> documentProcessingService.extractText(stream, extension, size));
+    }
+
+    private IngestedFile ingestTwoReads(Path upload, Path target, String extension, long size) throws Exception {
+        MessageDigest digest = Hashing.sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(upload), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (InputStream stored = Files.newInputStream(target)) {
+            String text = documentProcessingService.extractText(stored, extension, size);
+            return new IngestedFile(Files.size(target), Hashing.toHex(digest.digest()), text);
+        }
+    }
+
+    // Plain text of short lowercase words and sentences, with a paragraph break now and then
+    private static Path writeText(Path path, int megabytes) throws IOException {
+        Random random = new Random(42);
+        long limit = megabytes * 1024L * 1024L;
+        long written = 0;
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            StringBuilder sentence = new StringBuilder();
+            while (written < limit) {
+                sentence.setLength(0);
+                int words = 8 + random.nextInt(12);
+                for (int w = 0; w < words; w++) {
+                    int length = 2 + random.nextInt(8);
+                    for (int c = 0; c < length; c++) {
+                        sentence.append((char) ('a' + random.nextInt(26)));
+                    }
+                    sentence.append(w == words - 1 ? ". " : " ");
+                }
+                if (random.nextInt(10) == 0) {
+                    sentence.append("\n\n");
+                }
+                writer.write(sentence.toString());
+                written += sentence.length();
+            }
+        }
+        return path;
+    }
+
+    private static String extensionOf(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot == -1 ? "" : name.substring(dot).toLowerCase();
+    }
+}
@@ -0,0 +1,72 @@
+package com.summarizer.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Wall time and heap allocation of a repeated action, for the benchmark-tagged tests. Allocation is
+// summed over all live threads so work handed to pools (extraction, request handling) counts too;
+// threads that end during a run make it read slightly low.
+final class Measurement {
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws Exception;
+    }
+
+    private final String name;
+    private final long[] sortedNanos;
+    private final long allocatedBytesPerRun;
+
+    private Measurement(String name, long[] sortedNanos, long allocatedBytesPerRun) {
+        this.name = name;
+        this.sortedNanos = sortedNanos;
+        this.allocatedBytesPerRun = allocatedBytesPerRun;
+    }
+
+    static Measurement of(String name, int warmups, int runs, Action action) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            action.run();
+        }
+        System.gc();
+
+        long[] nanos = new long[runs];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = Math.max(0, allocatedBytes() - allocatedBefore);
+
+        Arrays.sort(nanos);
+        Measurement measurement = new Measurement(name, nanos, allocated / runs);
+        System.out.println(measurement);
+        return measurement;
+    }
+
+    double percentileMillis(double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    long getAllocatedBytesPerRun() {
+        return allocatedBytesPerRun;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-48s p50 %9.2f ms   p95 %9.2f ms   %,15d bytes allocated/run",
+            name, percentileMillis(50), percentileMillis(95), allocatedBytesPerRun);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
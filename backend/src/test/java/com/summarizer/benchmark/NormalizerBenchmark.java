@@ -0,0 +1,72 @@
+package com.summarizer.benchmark;
+
+import com.summarizer.util.TextNormalizer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// TextNormalizer against the trim/replaceAll chain it replaced, on text shaped like Tika output:
+// CRLF line ends, padded lines, runs of spaces and stacks of blank lines between paragraphs.
+//
+//   mvn test -Pbenchmark -Dtest=NormalizerBenchmark -Dbenchmark.text-mb=10
+@Tag("benchmark")
+class NormalizerBenchmark {
+
+    private static final int TEXT_MB = Integer.getInteger("benchmark.text-mb", 10);
+    private static final int WARMUPS = 5;
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 20);
+
+    @Test
+    void singlePassAgainstReplaceAll() throws Exception {
+        String text = extractedText(TEXT_MB * 1024 * 1024);
+        assertThat(TextNormalizer.normalize(text)).isEqualTo(replaceAllChain(text));
+
+        Measurement chain = Measurement.of("replaceAll chain", WARMUPS, RUNS, () -> replaceAllChain(text));
+        Measurement string = Measurement.of("TextNormalizer (CharSequence)", WARMUPS, RUNS, () ->
+            TextNormalizer.normalize(text));
+        Measurement reader = Measurement.of("TextNormalizer (Reader)", WARMUPS, RUNS, () ->
+            TextNormalizer.normalize(new StringReader(text)));
+
+        assertThat(string.percentileMillis(50)).isLessThan(chain.percentileMillis(50));
+        assertThat(string.getAllocatedBytesPerRun()).isLessThan(chain.getAllocatedBytesPerRun());
+        assertThat(reader.getAllocatedBytesPerRun()).isLessThan(chain.getAllocatedBytesPerRun());
+    }
+
+    // DocumentProcessingService.cleanExtractedText before the single-pass rewrite
+    private static String replaceAllChain(String text) {
+        String cleaned = text.trim();
+        cleaned = cleaned.replaceAll("\\r\\n", "\n");
+        cleaned = cleaned.replaceAll("\\r", "\n");
+        cleaned = cleaned.replaceAll("\\n\\s*\\n\\s*\\n", "\n\n");
+        cleaned = cleaned.replaceAll(" +", " ");
+        return cleaned;
+    }
+
+    private static String extractedText(int chars) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(chars + 256);
+        text.append("\r\n  ");
+        while (text.length() < chars) {
+            int words = 6 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                int length = 2 + random.nextInt(9);
+                for (int c = 0; c < length; c++) {
+                    text.append((char) ('a' + random.nextInt(26)));
+                }
+                text.append(random.nextInt(8) == 0 ? "   " : " ");
+            }
+            switch (random.nextInt(6)) {
+                case 0 -> text.append(".\r\n\r\n\r\n \t\r\n");
+                case 1 -> text.append(".\r\n\r\n");
+                case 2 -> text.append("\t\r\n");
+                default -> text.append(".\r\n");
+            }
+        }
+        text.append("\r\n\r\n  ");
+        return text.toString();
+    }
+}
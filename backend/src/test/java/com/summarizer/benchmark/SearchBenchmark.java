@@ -0,0 +1,129 @@
+package com.summarizer.benchmark;
+
+import com.summarizer.IntegrationTestSupport;
+import com.summarizer.service.SummaryService;
+import com.summarizer.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Postgres full-text search against the LOWER(...) LIKE '%term%' queries it replaced, over a
+// million documents with one summary each. The documents are spread over several users and the
+// searches run as one of them, the way the endpoints do. Words follow a skewed distribution over
+// a fixed vocabulary so there are common, rare and absent terms to look for.
+//
+//   mvn test -Pbenchmark -Dtest=SearchBenchmark -Dbenchmark.documents=1000000 -Dbenchmark.users=20
+@Tag("benchmark")
+@TestPropertySource(properties = "search.engine=database")
+class SearchBenchmark extends IntegrationTestSupport {
+
+    private static final int DOCUMENTS = Integer.getInteger("benchmark.documents", 1_000_000);
+    private static final int USERS = Integer.getInteger("benchmark.users", 20);
+    private static final int WORDS_PER_DOCUMENT = Integer.getInteger("benchmark.words", 200);
+    private static final int VOCABULARY = 5_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUPS = 3;
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 20);
+
+    // term1 is by far the most frequent word, term4999 appears in few documents, none contains the last
+    private static final String[] TERMS = {"term1", "term4999", "absentword"};
+
+    // The pre-V9 queries, on today's tables
+    private static final String LIKE_DOCUMENTS =
+        "SELECT d.*, c.content_text FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id " +
+        "WHERE d.user_id = ? AND (lower(d.original_filename) LIKE ('%' || lower(?) || '%') OR " +
+        "lower(c.content_text) LIKE ('%' || lower(?) || '%')) " +
+        "ORDER BY d.upload_timestamp DESC, d.id LIMIT ?";
+    private static final String LIKE_DOCUMENTS_COUNT =
+        "SELECT COUNT(*) FROM documents d LEFT JOIN document_contents c ON c.document_id = d.id " +
+        "WHERE d.user_id = ? AND (lower(d.original_filename) LIKE ('%' || lower(?) || '%') OR " +
+        "lower(c.content_text) LIKE ('%' || lower(?) || '%'))";
+    private static final String LIKE_SUMMARIES =
+        "SELECT s.* FROM summaries s JOIN documents d ON d.id = s.document_id " +
+        "WHERE d.user_id = ? AND lower(s.summary_text) LIKE ('%' || lower(?) || '%') " +
+        "ORDER BY s.created_at DESC, s.id LIMIT ?";
+    private static final String LIKE_SUMMARIES_COUNT =
+        "SELECT COUNT(*) FROM summaries s JOIN documents d ON d.id = s.document_id " +
+        "WHERE d.user_id = ? AND lower(s.summary_text) LIKE ('%' || lower(?) || '%')";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Test
+    void fullTextSearchAgainstLike() throws Exception {
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(createUser());
+        }
+        UUID userId = userIds.get(0);
+        load(userIds);
+
+        List<Measurement> likeDocuments = new ArrayList<>();
+        List<Measurement> ftsDocuments = new ArrayList<>();
+        for (String term : TERMS) {
+            likeDocuments.add(Measurement.of("documents LIKE '" + term + "'", WARMUPS, RUNS, () -> {
+                jdbcTemplate.queryForList(LIKE_DOCUMENTS, userId, term, term, PAGE_SIZE);
+                jdbcTemplate.queryForObject(LIKE_DOCUMENTS_COUNT, Long.class, userId, term, term);
+            }));
+            ftsDocuments.add(Measurement.of("documents full-text '" + term + "'", WARMUPS, RUNS, () ->
+                userService.searchUserDocuments(userId, term, PageRequest.of(0, PAGE_SIZE))));
+            Measurement.of("documents ranked '" + term + "'", WARMUPS, RUNS, () ->
+                userService.searchUserDocumentsRanked(userId, term, null, PAGE_SIZE));
+            Measurement.of("summaries LIKE '" + term + "'", WARMUPS, RUNS, () -> {
+                jdbcTemplate.queryForList(LIKE_SUMMARIES, userId, term, PAGE_SIZE);
+                jdbcTemplate.queryForObject(LIKE_SUMMARIES_COUNT, Long.class, userId, term);
+            });
+            Measurement.of("summaries full-text '" + term + "'", WARMUPS, RUNS, () ->
+                summaryService.searchUserSummaries(userId, term, PageRequest.of(0, PAGE_SIZE)));
+            Measurement.of("summaries ranked '" + term + "'", WARMUPS, RUNS, () ->
+                summaryService.searchUserSummariesRanked(userId, term, null, PAGE_SIZE));
+        }
+
+        // A selective term is answered from the GIN index instead of a scan of every text
+        for (int i = 1; i < TERMS.length; i++) {
+            assertThat(ftsDocuments.get(i).percentileMillis(50))
+                .as("full-text p50 for '%s'", TERMS[i])
+                .isLessThan(likeDocuments.get(i).percentileMillis(50));
+        }
+    }
+
+    private void load(List<UUID> userIds) {
+        long started = System.currentTimeMillis();
+        int batch = 50_000;
+        for (int from = 1; from <= DOCUMENTS; from += batch) {
+            int to = Math.min(DOCUMENTS, from + batch - 1);
+            // exp(random() * ln(n)) puts most words at the low end of the vocabulary
+            jdbcTemplate.update(
+                "WITH batch AS (" +
+                "  INSERT INTO documents (user_id, original_filename, file_type, file_size, content_type, status, upload_timestamp) " +
+                "  SELECT (CAST(? AS text[])::uuid[])[1 + g % ?], 'report-' || g || '.txt', 'txt', 0, 'text/plain', 'completed', " +
+                "         now() - g * interval '1 second' " +
+                "  FROM generate_series(?, ?) AS g RETURNING id) " +
+                "INSERT INTO document_contents (document_id, content_text) " +
+                "SELECT id, (SELECT string_agg('term' || floor(exp(random() * ln(?)))::int, ' ') " +
+                "            FROM generate_series(1, ?) AS w WHERE batch.id IS NOT NULL) " +
+                "FROM batch",
+                userIds.stream().map(UUID::toString).toArray(String[]::new), userIds.size(), from, to,
+                VOCABULARY, WORDS_PER_DOCUMENT);
+        }
+        jdbcTemplate.update(
+            "INSERT INTO summaries (document_id, summary_text, summary_ratio, model_used) " +
+            "SELECT document_id, left(content_text, 400), 0.30, 'stub' FROM document_contents");
+        jdbcTemplate.execute("ANALYZE documents");
+        jdbcTemplate.execute("ANALYZE document_contents");
+        jdbcTemplate.execute("ANALYZE summaries");
+        System.out.printf("Loaded %,d documents and summaries for %d users in %,d s%n",
+            DOCUMENTS, userIds.size(), (System.currentTimeMillis() - started) / 1000);
+    }
+}
@@ -0,0 +1,95 @@
+package com.summarizer.benchmark;
+
+import com.summarizer.service.TextRankSummarizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// TextRankSummarizer on a whole document of about 1 MB, with the defaults from application.yml.
+// Similarity rows and the power iteration run in blocks on the summarizer's pool, measured next to
+// the same summarizer on a single thread. The power iteration is most of the work and scales with
+// cores, so the p50 target of 100 ms is only asserted on a machine with at least four.
+//
+//   mvn test -Pbenchmark -Dtest=TextRankBenchmark -Dbenchmark.text-kb=1024
+@Tag("benchmark")
+class TextRankBenchmark {
+
+    private static final int TEXT_KB = Integer.getInteger("benchmark.text-kb", 1024);
+    private static final long TARGET_P50_MS = Long.getLong("benchmark.target-ms", 100);
+    private static final int MIN_PROCESSORS = Integer.getInteger("benchmark.min-processors", 4);
+    private static final int VOCABULARY = 5_000;
+    private static final int WARMUPS = 10;
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 30);
+
+    private TextRankSummarizer parallel;
+    private TextRankSummarizer sequential;
+
+    @BeforeEach
+    void createSummarizers() {
+        parallel = summarizer(0);
+        sequential = summarizer(1);
+    }
+
+    @AfterEach
+    void shutdownSummarizers() {
+        ReflectionTestUtils.invokeMethod(parallel, "shutdown");
+        ReflectionTestUtils.invokeMethod(sequential, "shutdown");
+    }
+
+    @Test
+    void summarizeOneMegabyte() throws Exception {
+        String text = document(TEXT_KB * 1024);
+        BigDecimal ratio = new BigDecimal("0.30");
+        String summary = parallel.summarize(text, ratio);
+        assertThat(summary).isNotBlank().isEqualTo(sequential.summarize(text, ratio));
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        Measurement parallelRun = Measurement.of("TextRank on " + TEXT_KB + " KB, " + processors + " threads",
+            WARMUPS, RUNS, () -> parallel.summarize(text, ratio));
+        Measurement sequentialRun = Measurement.of("TextRank on " + TEXT_KB + " KB, 1 thread",
+            WARMUPS, RUNS, () -> sequential.summarize(text, ratio));
+
+        assumeTrue(processors >= MIN_PROCESSORS,
+            "p50 target needs " + MIN_PROCESSORS + " processors, this machine has " + processors);
+        assertThat(parallelRun.percentileMillis(50)).isLessThan(TARGET_P50_MS);
+        assertThat(parallelRun.percentileMillis(50)).isLessThan(sequentialRun.percentileMillis(50));
+    }
+
+    private static TextRankSummarizer summarizer(int parallelism) {
+        TextRankSummarizer summarizer = new TextRankSummarizer();
+        ReflectionTestUtils.setField(summarizer, "damping", 0.85);
+        ReflectionTestUtils.setField(summarizer, "maxIterations", 50);
+        ReflectionTestUtils.setField(summarizer, "tolerance", 0.0001);
+        ReflectionTestUtils.setField(summarizer, "parallelism", parallelism);
+        ReflectionTestUtils.setField(summarizer, "parallelThreshold", 2000);
+        ReflectionTestUtils.invokeMethod(summarizer, "init");
+        return summarizer;
+    }
+
+    // Sentences of words drawn from a skewed vocabulary, so sentences share common words and some
+    // rarer ones, with a paragraph break now and then
+    private static String document(int chars) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(chars + 256);
+        while (text.length() < chars) {
+            int words = 8 + random.nextInt(16);
+            for (int w = 0; w < words; w++) {
+                int word = (int) Math.exp(random.nextDouble() * Math.log(VOCABULARY));
+                text.append(w == 0 ? "Word" : "word").append(word);
+                text.append(w == words - 1 ? ". " : " ");
+            }
+            if (random.nextInt(10) == 0) {
+                text.append("\n\n");
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.summarizer.service;
+
+import com.summarizer.model.AISummaryResponse;
+import com.summarizer.model.ChunkedSummaryResult;
+import com.summarizer.repository.ChunkSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Every requested ratio must come out at its own length on a chunked document, including the
+// ratios whose compose step would need more than the AI service's 0.50.
+class ChunkedSummarizerTest {
+
+    private static final String[] WORDS = {
+        "revenue", "growth", "region", "market", "customer", "product", "pricing", "launch", "supply",
+        "margin", "forecast", "hiring", "budget", "risk", "contract", "partner", "quality", "support",
+        "delivery", "inventory", "research", "platform", "security", "compliance", "training", "audit"
+    };
+
+    private ChunkedSummarizer summarizer;
+    private ThreadPoolTaskExecutor executor;
+    private TextRankSummarizer textRank;
+    private SummarizationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        TextChunker chunker = new TextChunker();
+        ReflectionTestUtils.setField(chunker, "maxChunkTokens", 256);
+        ReflectionTestUtils.setField(chunker, "minChunkTokens", 50);
+
+        textRank = new TextRankSummarizer();
+        ReflectionTestUtils.setField(textRank, "damping", 0.85);
+        ReflectionTestUtils.setField(textRank, "maxIterations", 50);
+        ReflectionTestUtils.setField(textRank, "tolerance", 0.0001);
+        ReflectionTestUtils.setField(textRank, "parallelThreshold", 2000);
+        textRank.init();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+
+        provider = mock(SummarizationProvider.class);
+        when(provider.requiresChunking()).thenReturn(true);
+        when(provider.getModelName()).thenReturn("model");
+
+        // Like the stub provider: the leading share of the words
+        AIService aiService = mock(AIService.class);
+        when(aiService.generateSummary(any(), anyString(), any())).thenAnswer(invocation -> {
+            String text = invocation.getArgument(1);
+            BigDecimal ratio = invocation.getArgument(2);
+            assertThat(ratio).isBetween(new BigDecimal("0.10"), new BigDecimal("0.50"));
+            String[] words = text.trim().split("\\s+");
+            int keep = Math.max(1, (int) (words.length * ratio.doubleValue()));
+            AISummaryResponse response = new AISummaryResponse();
+            response.setSummaryText(String.join(" ", Arrays.copyOf(words, keep)));
+            response.setModel_used("model");
+            return response;
+        });
+
+        summarizer = new ChunkedSummarizer();
+        ReflectionTestUtils.setField(summarizer, "aiService", aiService);
+        ReflectionTestUtils.setField(summarizer, "textChunker", chunker);
+        ReflectionTestUtils.setField(summarizer, "textRankSummarizer", textRank);
+        ReflectionTestUtils.setField(summarizer, "chunkSummaryRepository", mock(ChunkSummaryRepository.class));
+        ReflectionTestUtils.setField(summarizer, "summaryChunkExecutor", executor);
+        ReflectionTestUtils.setField(summarizer, "mapRatio", new BigDecimal("0.5"));
+        ReflectionTestUtils.setField(summarizer, "reduceFanOut", 4);
+        ReflectionTestUtils.setField(summarizer, "maxReduceDepth", 2);
+        ReflectionTestUtils.setField(summarizer, "reduceRatio", new BigDecimal("0.5"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        textRank.shutdown();
+    }
+
+    @Test
+    void distinctRatiosGiveDistinctLengths() {
+        String document = document(40);
+        UUID documentId = UUID.randomUUID();
+
+        int previous = 0;
+        for (String ratio : new String[] {"0.20", "0.30", "0.40", "0.45"}) {
+            ChunkedSummaryResult result = summarizer.summarize(documentId, document, new BigDecimal(ratio), provider);
+            int length = result.getSummaryText().length();
+            assertThat(length).as("summary length at ratio %s", ratio).isGreaterThan(previous);
+            previous = length;
+        }
+    }
+
+    @Test
+    void ratioOfThreeTenthsDiffersFromFourTenths() {
+        String document = document(40);
+        UUID documentId = UUID.randomUUID();
+
+        String lower = summarizer.summarize(documentId, document, new BigDecimal("0.30"), provider).getSummaryText();
+        String higher = summarizer.summarize(documentId, document, new BigDecimal("0.40"), provider).getSummaryText();
+
+        assertThat(lower.length()).isLessThan(higher.length());
+    }
+
+    // Paragraphs of distinct sentences, long enough to need several chunks
+    private static String document(int paragraphs) {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                text.append("\n\n");
+            }
+            for (int s = 0; s < 8; s++) {
+                text.append("Section ").append(p).append(" point ").append(s);
+                for (int w = 0; w < 10; w++) {
+                    text.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                text.append(". ");
+            }
+        }
+        return text.toString();
+    }
+}
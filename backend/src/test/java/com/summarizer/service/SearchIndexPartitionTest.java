@@ -0,0 +1,190 @@
+package com.summarizer.service;
+
+import com.summarizer.model.SearchHit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Searches must give the same hits, in the same BM25 order, through every state a partition's
+// postings can be in: heap only, swapped for the mapped segment by save, loaded from a segment
+// with records added after, and renumbered by compaction.
+class SearchIndexPartitionTest {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void matchesOnlyRecordsWithEveryTerm() {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        UUID both = put(partition, "budget forecast revenue");
+        put(partition, "budget hiring");
+        put(partition, "forecast risk");
+
+        assertThat(ids(partition.search(List.of("budget", "forecast"), K1, B))).containsExactly(both);
+        assertThat(partition.search(List.of("budget", "missing"), K1, B)).isEmpty();
+        assertThat(partition.search(List.of(), K1, B)).isEmpty();
+    }
+
+    @Test
+    void ranksByBm25() {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        UUID frequent = put(partition, "budget budget budget review");
+        UUID shortRecord = put(partition, "budget review");
+        UUID longRecord = put(partition, "budget review hiring risk audit platform training support");
+        put(partition, "hiring risk");
+
+        // More occurrences first; for one occurrence each, the shorter record first
+        assertThat(ids(partition.search(List.of("budget"), K1, B)))
+            .containsExactly(frequent, shortRecord, longRecord);
+    }
+
+    @Test
+    void removedAndReindexedRecordsAreSearchedByTheirCurrentText() {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        UUID removed = put(partition, "budget review");
+        UUID reindexed = put(partition, "budget review");
+        partition.remove(removed);
+        partition.put(reindexed, counts("hiring plan"), 2);
+
+        assertThat(partition.search(List.of("budget"), K1, B)).isEmpty();
+        assertThat(ids(partition.search(List.of("hiring"), K1, B))).containsExactly(reindexed);
+    }
+
+    @Test
+    void saveKeepsHitsAndLaterPutsStillMatch() throws IOException {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        fill(partition, 30);
+        List<SearchHit> before = partition.search(List.of("budget", "review"), K1, B);
+
+        partition.save(dir.resolve("segment"));
+
+        assertThat(partition.isDirty()).isFalse();
+        assertHits(partition.search(List.of("budget", "review"), K1, B), before);
+
+        // Postings now in the mapping take appends in their heap tail
+        UUID added = put(partition, "budget review budget review");
+        assertThat(ids(partition.search(List.of("budget", "review"), K1, B))).first().isEqualTo(added);
+    }
+
+    @Test
+    void loadedSegmentSearchesLikeTheSavedPartition() throws IOException {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        List<UUID> records = fill(partition, 30);
+        partition.remove(records.get(0));
+        Path segment = dir.resolve("segment");
+        partition.save(segment);
+
+        SearchIndexPartition loaded = SearchIndexPartition.load(segment);
+        assertHits(loaded.search(List.of("budget", "review"), K1, B), partition.search(List.of("budget", "review"), K1, B));
+
+        // Added after loading, then saved and loaded again: base and tail both survive
+        UUID added = put(loaded, "budget review budget review");
+        partition.put(added, counts("budget review budget review"), 4);
+        loaded.save(segment);
+        SearchIndexPartition reloaded = SearchIndexPartition.load(segment);
+
+        List<SearchHit> expected = partition.search(List.of("budget", "review"), K1, B);
+        assertHits(loaded.search(List.of("budget", "review"), K1, B), expected);
+        assertHits(reloaded.search(List.of("budget", "review"), K1, B), expected);
+        assertThat(ids(reloaded.search(List.of("budget"), K1, B))).doesNotContain(records.get(0));
+    }
+
+    @Test
+    void compactionKeepsBm25Order() throws IOException {
+        SearchIndexPartition partition = new SearchIndexPartition();
+        Path segment = dir.resolve("segment");
+        List<UUID> records = fill(partition, 128);
+        // Saved first, so compaction rewrites postings read from the mapping
+        partition.save(segment);
+        partition = SearchIndexPartition.load(segment);
+
+        SearchIndexPartition expected = new SearchIndexPartition();
+        for (int i = 0; i < records.size(); i++) {
+            if (i % 2 == 0 && i > 0) {
+                expected.put(records.get(i), counts(text(i)), length(text(i)));
+            } else {
+                partition.remove(records.get(i));
+            }
+        }
+
+        // Compaction runs once tombstones outnumber live records: on the last of the 65 removes,
+        // so no tombstone is left to skew document frequencies against the fresh partition
+        assertThat((List<?>) ReflectionTestUtils.getField(partition, "ids")).hasSize(63);
+        for (List<String> query : List.of(List.of("budget"), List.of("budget", "review"), List.of("risk"))) {
+            assertHits(partition.search(query, K1, B), expected.search(query, K1, B));
+        }
+
+        partition.save(segment);
+        SearchIndexPartition reloaded = SearchIndexPartition.load(segment);
+        for (List<String> query : List.of(List.of("budget"), List.of("budget", "review"), List.of("risk"))) {
+            assertHits(reloaded.search(query, K1, B), expected.search(query, K1, B));
+        }
+    }
+
+    private static List<UUID> fill(SearchIndexPartition partition, int count) {
+        List<UUID> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(0L, i + 1);
+            partition.put(id, counts(text(i)), length(text(i)));
+            records.add(id);
+        }
+        return records;
+    }
+
+    // Varying term frequencies and lengths, so BM25 orders the records by more than insertion
+    private static String text(int i) {
+        StringBuilder text = new StringBuilder("budget");
+        for (int k = 0; k < i % 5; k++) {
+            text.append(" budget");
+        }
+        text.append(i % 2 == 0 ? " review" : " hiring");
+        for (int k = 0; k < i % 7; k++) {
+            text.append(" risk");
+        }
+        return text.toString();
+    }
+
+    private static UUID put(SearchIndexPartition partition, String text) {
+        UUID id = UUID.randomUUID();
+        partition.put(id, counts(text), length(text));
+        return id;
+    }
+
+    private static Map<String, Integer> counts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : text.split(" ")) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static int length(String text) {
+        return text.split(" ").length;
+    }
+
+    private static List<UUID> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getId).toList();
+    }
+
+    private static void assertHits(List<SearchHit> actual, List<SearchHit> expected) {
+        assertThat(expected).isNotEmpty();
+        assertThat(ids(actual)).containsExactlyElementsOf(ids(expected));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).getScore()).isCloseTo(expected.get(i).getScore(), within(1e-9));
+        }
+    }
+}
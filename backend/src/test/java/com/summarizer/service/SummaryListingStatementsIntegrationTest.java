@@ -0,0 +1,108 @@
+package com.summarizer.service;
+
+import com.summarizer.IntegrationTestSupport;
+import com.summarizer.dto.CursorPage;
+import com.summarizer.dto.SummaryResponse;
+import com.summarizer.model.SummaryView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The summary listings load SummaryView projections and map them without touching Summary.document,
+// so a page of 100 costs its select plus, for Page results, the count: never one query per row.
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "search.engine=database"
+})
+class SummaryListingStatementsIntegrationTest extends IntegrationTestSupport {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private MappingService mappingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID userId;
+    private UUID documentId;
+
+    @BeforeEach
+    void createSummaries() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = createUser();
+        // More rows than one page across several documents, so the page is full and counted
+        for (int d = 0; d < 30; d++) {
+            documentId = createDocument(userId, "minutes-" + d + ".txt", "Board meeting minutes " + d);
+            jdbcTemplate.update(
+                "INSERT INTO summaries (document_id, summary_text, summary_ratio, model_used) " +
+                "SELECT ?, 'Budget approved at meeting ' || ? || ', version ' || v, 0.30, 'stub' " +
+                "FROM generate_series(1, 5) AS v",
+                documentId, d);
+        }
+    }
+
+    @Test
+    void pageOfSummariesIsOneSelectAndOneCount() {
+        statistics.clear();
+
+        Page<SummaryResponse> page = summaryService.getUserSummaries(userId,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id")))
+            .map(mappingService::toSummaryResponse);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(summary -> assertThat(summary.getDocumentId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+    }
+
+    @Test
+    void scrolledPageOfSummariesIsOneSelect() {
+        statistics.clear();
+
+        CursorPage<SummaryView> page = summaryService.getUserSummariesAfter(userId, null, PAGE_SIZE, false);
+        List<SummaryResponse> content = page.getContent().stream().map(mappingService::toSummaryResponse).toList();
+
+        assertThat(content).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void searchedPageOfSummariesIsOneSelectAndOneCount() {
+        statistics.clear();
+
+        Page<SummaryResponse> page = summaryService.searchUserSummaries(userId, "budget",
+                PageRequest.of(0, PAGE_SIZE))
+            .map(mappingService::toSummaryResponse);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+    }
+
+    @Test
+    void documentSummariesAreOneSelect() {
+        statistics.clear();
+
+        List<SummaryResponse> summaries = summaryService.getDocumentSummaryViews(documentId).stream()
+            .map(mappingService::toSummaryResponse)
+            .toList();
+
+        assertThat(summaries).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+    }
+}
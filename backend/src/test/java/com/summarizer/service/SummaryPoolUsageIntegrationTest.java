@@ -0,0 +1,97 @@
+package com.summarizer.service;
+
+import com.summarizer.IntegrationTestSupport;
+import com.summarizer.entity.Summary;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// createSummary must not hold a connection while the provider works: with four times as many
+// summaries in flight as the pool has connections, the pool stays idle during the provider calls
+// and every summary still completes.
+@TestPropertySource(properties = {
+    "spring.datasource.hikari.maximum-pool-size=5",
+    "summary.stub.latency-median-ms=5000",
+    "summary.stub.latency-sigma=0",
+    "summary.stub.error-rate=0",
+    "ai.hedging.enabled=false",
+    "ai.guard.limit.initial=64"
+})
+class SummaryPoolUsageIntegrationTest extends IntegrationTestSupport {
+
+    private static final int IN_FLIGHT = 20;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void poolStaysIdleWhileSummariesWaitOnTheProvider() throws Exception {
+        UUID userId = createUser();
+        List<UUID> documentIds = new ArrayList<>();
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            documentIds.add(createDocument(userId, "report-" + i + ".txt",
+                "Quarterly report " + i + ". Revenue grew in every region. Costs were flat. Hiring continues."));
+        }
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+
+        ExecutorService callers = Executors.newFixedThreadPool(IN_FLIGHT);
+        try {
+            List<Future<Summary>> futures = new ArrayList<>();
+            for (UUID documentId : documentIds) {
+                futures.add(callers.submit(() ->
+                    summaryService.createSummary(documentId, new BigDecimal("0.30"), StubSummarizationProvider.ID)));
+            }
+
+            // Every call has committed 'processing' and is now inside the stub's five-second call
+            awaitProcessing(userId);
+            int peakActive = 0;
+            for (int sample = 0; sample < 40; sample++) {
+                peakActive = Math.max(peakActive, pool.getActiveConnections());
+                Thread.sleep(25);
+            }
+            assertThat(peakActive)
+                .as("connections in use while %d summaries wait on the provider", IN_FLIGHT)
+                .isLessThanOrEqualTo(1);
+
+            for (Future<Summary> future : futures) {
+                assertThat(future.get(60, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM documents WHERE user_id = ? AND status = 'completed'", Integer.class, userId))
+            .isEqualTo(IN_FLIGHT);
+    }
+
+    private void awaitProcessing(UUID userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(4);
+        while (System.currentTimeMillis() < deadline) {
+            Integer processing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM documents WHERE user_id = ? AND status = 'processing'", Integer.class, userId);
+            if (processing == IN_FLIGHT) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Summaries did not all reach 'processing' while the provider was still working");
+    }
+}
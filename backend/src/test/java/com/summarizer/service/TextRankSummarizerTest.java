@@ -0,0 +1,44 @@
+package com.summarizer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows are summed per sentence in float, so a pair at the similarity cut-off can be an edge in one
+// row only. A sentence left without edges of its own must not turn every score into NaN.
+class TextRankSummarizerTest {
+
+    private TextRankSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        summarizer = new TextRankSummarizer();
+        ReflectionTestUtils.setField(summarizer, "damping", 0.85);
+        ReflectionTestUtils.setField(summarizer, "maxIterations", 50);
+        ReflectionTestUtils.setField(summarizer, "tolerance", 0.0001);
+        ReflectionTestUtils.setField(summarizer, "parallelThreshold", 2000);
+        summarizer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        summarizer.shutdown();
+    }
+
+    @Test
+    void edgeKeptOnOneSideOnlyLeavesScoresFinite() {
+        // 0 lists 1, but 1 dropped 0 and has no other edge; 2 and 3 are an ordinary pair
+        int[][] neighbours = {{1}, {}, {3}, {2}};
+        float[][] weights = {{0.05f}, {}, {0.4f}, {0.4f}};
+
+        double[] scores = ReflectionTestUtils.invokeMethod(summarizer, "rank", neighbours, weights);
+
+        assertThat(scores).hasSize(4);
+        for (double score : scores) {
+            assertThat(score).isFinite().isPositive();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.summarizer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A posting list reads the same whether its postings are all in the heap tail, all in a mapped
+// base, or split between the two, and writing it out gives bytes a base can be read back from.
+class PostingListTest {
+
+    // Gaps of one, two and three varint bytes, and frequencies past one byte
+    private static final int[][] POSTINGS = {
+        {0, 1}, {1, 3}, {130, 1}, {131, 200}, {20000, 2}, {20001, 1}, {2_000_000, 70000}
+    };
+
+    @Test
+    void cursorWalksHeapPostingsInOrder() {
+        PostingList list = new PostingList();
+        for (int[] posting : POSTINGS) {
+            list.add(posting[0], posting[1]);
+        }
+
+        assertThat(list.size()).isEqualTo(POSTINGS.length);
+        assertThat(list.lastDoc()).isEqualTo(2_000_000);
+        assertThat(read(list)).containsExactly(POSTINGS);
+    }
+
+    @Test
+    void cursorContinuesFromBaseIntoTail() throws IOException {
+        PostingList written = new PostingList();
+        for (int i = 0; i < 4; i++) {
+            written.add(POSTINGS[i][0], POSTINGS[i][1]);
+        }
+        byte[] bytes = bytes(written);
+        assertThat(bytes).hasSize(written.byteLength());
+
+        PostingList loaded = new PostingList(ByteBuffer.wrap(bytes), 4, written.lastDoc());
+        for (int i = 4; i < POSTINGS.length; i++) {
+            loaded.add(POSTINGS[i][0], POSTINGS[i][1]);
+        }
+
+        assertThat(read(loaded)).containsExactly(POSTINGS);
+
+        // Written out again, base and tail are one run that reads back the same
+        PostingList reloaded = new PostingList(ByteBuffer.wrap(bytes(loaded)), loaded.size(), loaded.lastDoc());
+        assertThat(read(reloaded)).containsExactly(POSTINGS);
+    }
+
+    @Test
+    void baseIsReadFromItsOwnPosition() throws IOException {
+        PostingList written = new PostingList();
+        for (int[] posting : POSTINGS) {
+            written.add(posting[0], posting[1]);
+        }
+        byte[] bytes = bytes(written);
+        byte[] padded = new byte[bytes.length + 5];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+
+        ByteBuffer base = ByteBuffer.wrap(padded, 3, bytes.length);
+        PostingList loaded = new PostingList(base, POSTINGS.length, written.lastDoc());
+
+        assertThat(read(loaded)).containsExactly(POSTINGS);
+    }
+
+    @Test
+    void rejectsDocsOutOfOrder() {
+        PostingList list = new PostingList();
+        list.add(5, 1);
+
+        assertThatThrownBy(() -> list.add(5, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> list.add(4, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void loadedListRejectsDocsBeforeItsLastDoc() throws IOException {
+        PostingList written = new PostingList();
+        written.add(10, 1);
+        PostingList loaded = new PostingList(ByteBuffer.wrap(bytes(written)), 1, 10);
+
+        assertThatThrownBy(() -> loaded.add(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<int[]> read(PostingList list) {
+        List<int[]> postings = new ArrayList<>();
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            postings.add(new int[] {cursor.doc(), cursor.freq()});
+        }
+        return postings;
+    }
+
+    private static byte[] bytes(PostingList list) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            list.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,55 @@
+package com.summarizer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The index's terms must be the lexemes Postgres's english configuration gives, or the same query
+// would match different records depending on which engine answers it.
+class SearchTokenizerTest {
+
+    // Word and stem pairs from the Snowball English vocabulary, which to_tsvector('english', ...) follows
+    @ParameterizedTest
+    @CsvSource({
+        "running, run",
+        "run, run",
+        "generously, generous",
+        "consistency, consist",
+        "consolingly, consol",
+        "conspiracy, conspiraci",
+        "knackeries, knackeri",
+        "knives, knive",
+        "ponies, poni",
+        "ties, tie",
+        "caresses, caress",
+        "hopping, hop",
+        "filing, file",
+        "relational, relat",
+        "adjustment, adjust",
+        "communism, communism",
+        "skies, sky",
+        "news, news",
+        "Summarization, summar",
+        "Documents, document"
+    })
+    void stemsAsSnowballEnglishDoes(String word, String term) {
+        assertThat(SearchTokenizer.terms(word)).containsExactly(term);
+    }
+
+    @Test
+    void dropsEnglishStopWords() {
+        assertThat(SearchTokenizer.terms("which of these were being")).isEmpty();
+    }
+
+    @Test
+    void keepsWordsWithDigitsUnstemmed() {
+        assertThat(SearchTokenizer.terms("reports2024")).containsExactly("reports2024");
+    }
+
+    @Test
+    void keepsSingleLetters() {
+        assertThat(SearchTokenizer.terms("x")).containsExactly("x");
+    }
+}
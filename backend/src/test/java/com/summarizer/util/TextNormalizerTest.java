@@ -0,0 +1,107 @@
+package com.summarizer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// TextNormalizer must give exactly what the replaceAll chain it replaced gave, from a string and
+// from a stream, wherever the stream's reads happen to split the text.
+class TextNormalizerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "   ",
+        "plain text",
+        "  leading and trailing  ",
+        "\n\t leading and trailing \r\n\t ",
+        "\u0001control characters are trimmed too\u0001",
+        "windows\r\nline\r\nbreaks",
+        "old mac\rline\rbreaks",
+        "mixed\r\n\rbreaks\n\r",
+        "lone\r\r\rcarriage returns",
+        "one blank line\n\nstays",
+        "one blank line with whitespace\n \t\nstays",
+        "two blank lines\n\n\ncollapse",
+        "two blank lines with whitespace\n\t \n  \t\n collapse",
+        "many blank lines\n\n\n\n\n\n\ncollapse",
+        "many blank lines with whitespace\n \n\t\n \t \n\n\t\ncollapse",
+        "crlf blank lines\r\n\r\n\r\ncollapse",
+        "cr blank lines\r \r\t\r\rcollapse",
+        "spaces    between     words",
+        "tabs\t\tare\t kept",
+        "vertical\u000Btab and\fform feed\n\u000B\n\f\nbetween lines",
+        "ends with blank lines\n\n\n\n",
+        "\n\n\n\nstarts with blank lines"
+    })
+    void matchesTheReplaceAllChain(String text) throws IOException {
+        String expected = replaceAllChain(text);
+
+        assertThat(TextNormalizer.normalize(text)).isEqualTo(expected);
+        assertThat(TextNormalizer.normalize(new StringReader(text))).isEqualTo(expected);
+        assertThat(TextNormalizer.normalize(new OneCharReader(text))).isEqualTo(expected);
+    }
+
+    @Test
+    void matchesTheReplaceAllChainOnRandomText() throws IOException {
+        Random random = new Random(7);
+        String alphabet = "ab  \t\n\n\r\u000B\f\u0001.";
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String expected = replaceAllChain(text.toString());
+
+            assertThat(TextNormalizer.normalize(text)).as("text %d", n).isEqualTo(expected);
+            assertThat(TextNormalizer.normalize(new OneCharReader(text.toString()))).as("text %d", n).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void nullIsEmpty() {
+        assertThat(TextNormalizer.normalize((CharSequence) null)).isEmpty();
+    }
+
+    // DocumentProcessingService.cleanExtractedText before the single-pass rewrite
+    private static String replaceAllChain(String text) {
+        String cleaned = text.trim();
+        cleaned = cleaned.replaceAll("\\r\\n", "\n");
+        cleaned = cleaned.replaceAll("\\r", "\n");
+        cleaned = cleaned.replaceAll("\\n\\s*\\n\\s*\\n", "\n\n");
+        cleaned = cleaned.replaceAll(" +", " ");
+        return cleaned;
+    }
+
+    // Splits every \r\n and whitespace run across reads
+    private static class OneCharReader extends Reader {
+
+        private final String text;
+        private int position;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,6 +1,6 @@
 import axios, { AxiosInstance, AxiosResponse } from 'axios';
 import { AuthRequest, AuthResponse } from '../types/auth';
-import { DocumentUploadResponse, SummaryRequest, SummaryResponse } from '../types/document';
+import { DocumentUploadResponse, SummaryJobResponse, SummaryRequest, SummaryResponse } from '../types/document';
 import { Conversation } from '../types/chat';
 
 
@@ -127,13 +127,32 @@ class ApiService {
 
   // Summary endpoints
   async createSummary(documentId: string, summaryRequest: SummaryRequest): Promise<SummaryResponse> {
-    const response: AxiosResponse<SummaryResponse> = await this.api.post(
+    const response: AxiosResponse<SummaryJobResponse> = await this.api.post(
       `/documents/${documentId}/summarize`,
       summaryRequest
     );
+    return this.waitForSummaryJob(response.data.jobId);
+  }
+
+  async getJob(jobId: string): Promise<SummaryJobResponse> {
+    const response: AxiosResponse<SummaryJobResponse> = await this.api.get(`/jobs/${jobId}`);
     return response.data;
   }
 
+  // Summaries are generated asynchronously; poll the job until it finishes
+  private async waitForSummaryJob(jobId: string, intervalMs = 1500): Promise<SummaryResponse> {
+    for (;;) {
+      const job = await this.getJob(jobId);
+      if (job.status === 'completed' && job.summary) {
+        return job.summary;
+      }
+      if (job.status === 'failed') {
+        throw new Error(job.error || 'Failed to generate summary');
+      }
+      await new Promise((resolve) => setTimeout(resolve, intervalMs));
+    }
+  }
+
   async getDocumentSummaries(documentId: string): Promise<SummaryResponse[]> {
     const response = await this.api.get(`/documents/${documentId}/summary`);
     return response.data;
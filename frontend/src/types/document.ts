@@ -3,10 +3,9 @@ export interface Document {
   originalFilename: string;
   fileType: 'pdf' | 'txt' | 'docx';
   fileSize: number;
-  status: 'uploaded' | 'processing' | 'completed' | 'failed';
+  status: 'uploaded' | 'extracting' | 'processing' | 'completed' | 'failed';
   uploadTimestamp: string;
   processedAt?: string;
-  contentText?: string;
 }
 
 export interface DocumentUploadResponse {
@@ -34,6 +33,7 @@ export interface Summary {
 export interface SummaryRequest {
   summaryRatio: number;
   summary_ratio?: number;
+  provider?: string;
 }
 
 export interface SummaryResponse {
@@ -47,6 +47,20 @@ export interface SummaryResponse {
   createdAt: string;
 }
 
+export interface SummaryJobResponse {
+  jobId: string;
+  documentId: string;
+  summaryRatio: number;
+  provider: string;
+  status: 'queued' | 'running' | 'completed' | 'failed';
+  progress: number;
+  summary?: SummaryResponse;
+  error?: string;
+  createdAt: string;
+  startedAt?: string;
+  completedAt?: string;
+}
+
 export interface ProcessingUpdate {
   type: string;
   documentId: string;